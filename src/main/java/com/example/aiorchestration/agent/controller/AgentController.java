@@ -2,12 +2,16 @@ package com.example.aiorchestration.agent.controller;
 
 import com.example.aiorchestration.agent.model.*;
 import com.example.aiorchestration.agent.service.AgentManagementService;
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.api.model.NdjsonStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -19,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
 public class AgentController {
 
     private final AgentManagementService agentService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<Agent> registerAgent(@Valid @RequestBody AgentRegistrationRequest request) {
@@ -27,9 +32,17 @@ public class AgentController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Agent>> getAllAgents() {
-        log.info("Getting all agents");
-        return ResponseEntity.ok(agentService.getAllAgents());
+    public ResponseEntity<CursorPage<Agent>> getAllAgents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Getting agents after cursor: {}", cursor);
+        return ResponseEntity.ok(agentService.getAgents(cursor, limit));
+    }
+    
+    @GetMapping(produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllAgents() {
+        log.info("Streaming all agents");
+        return NdjsonStreams.<Agent>stream(objectMapper, agentService::streamAgents);
     }
     
     @GetMapping("/{id}")
@@ -39,9 +52,18 @@ public class AgentController {
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Agent>> getAgentsByStatus(@PathVariable AgentStatus status) {
+    public ResponseEntity<CursorPage<Agent>> getAgentsByStatus(
+            @PathVariable AgentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting agents by status: {}", status);
-        return ResponseEntity.ok(agentService.getAgentsByStatus(status));
+        return ResponseEntity.ok(agentService.getAgentsByStatus(status, cursor, limit));
+    }
+    
+    @GetMapping(value = "/status/{status}", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAgentsByStatus(@PathVariable AgentStatus status) {
+        log.info("Streaming agents by status: {}", status);
+        return NdjsonStreams.<Agent>stream(objectMapper, action -> agentService.streamAgentsByStatus(status, action));
     }
     
     @GetMapping("/type/{type}")
@@ -76,9 +98,9 @@ public class AgentController {
     }
     
     @PostMapping("/{id}/execute")
-    public ResponseEntity<CompletableFuture<AgentResponse>> executeAgent(@PathVariable String id, @RequestBody AgentRequest request) {
+    public CompletableFuture<ResponseEntity<AgentResponse>> executeAgent(@PathVariable String id, @RequestBody AgentRequest request) {
         log.info("Executing agent: {}", id);
-        return ResponseEntity.accepted().body(agentService.executeAgent(id, request));
+        return agentService.executeAgent(id, request).thenApply(ResponseEntity::ok);
     }
     
     @PostMapping("/{id}/health-check")
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @Data
 @Builder
@@ -42,6 +44,13 @@ public class Agent {
     @Column(name = "metadata_value")
     private Map<String, String> metadata = new HashMap<>();
     
+    // Names of the tool beans the model may call while this agent executes
+    @ElementCollection
+    @CollectionTable(name = "agent_tools", 
+                    joinColumns = @JoinColumn(name = "agent_id"))
+    @Column(name = "tool_name")
+    private Set<String> tools = new HashSet<>();
+    
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime lastHealthCheck;
@@ -9,7 +9,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @Data
 @Builder
@@ -31,4 +33,6 @@ public class AgentRegistrationRequest {
     private String capability;
     
     private Map<String, String> metadata = new HashMap<>();
+    
+    private Set<String> tools = new HashSet<>();
 }
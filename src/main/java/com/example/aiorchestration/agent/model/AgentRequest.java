@@ -14,5 +14,9 @@ import java.util.Map;
 @AllArgsConstructor
 public class AgentRequest {
     private String prompt;
+    // Supporting context sent ahead of the prompt, e.g. results of earlier workflow steps
+    private String context;
+    // Prior turns of this conversation are sent with the prompt, and the new turn is recorded
+    private String conversationId;
     private Map<String, Object> parameters = new HashMap<>();
 }
@@ -2,10 +2,15 @@ package com.example.aiorchestration.agent.repository;
 
 import com.example.aiorchestration.agent.model.Agent;
 import com.example.aiorchestration.agent.model.AgentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,21 @@ public interface AgentRepository extends JpaRepository<Agent, String> {
     List<Agent> findByLastHealthCheckBefore(LocalDateTime timestamp);
     Optional<Agent> findByName(String name);
     long countByStatus(AgentStatus status);
+    
+    @EntityGraph(attributePaths = {"metadata", "tools"})
+    List<Agent> findAllWithMetadataBy();
+    
+    @EntityGraph(attributePaths = {"metadata", "tools"})
+    Optional<Agent> findWithMetadataById(String id);
+    
+    @Modifying
+    @Query("update Agent a set a.status = :status, a.updatedAt = :updatedAt where a.id in :ids")
+    int updateStatus(@Param("ids") Collection<String> ids,
+                     @Param("status") AgentStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("update Agent a set a.lastHealthCheck = :checkedAt where a.id in :ids")
+    int updateLastHealthCheck(@Param("ids") Collection<String> ids,
+                              @Param("checkedAt") LocalDateTime checkedAt);
 }
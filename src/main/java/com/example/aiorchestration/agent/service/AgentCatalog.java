@@ -0,0 +1,241 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.event.AgentEvent;
+import com.example.aiorchestration.agent.model.Agent;
+import com.example.aiorchestration.agent.model.AgentStatus;
+import com.example.aiorchestration.agent.repository.AgentRepository;
+import com.example.aiorchestration.event.InProcessEventBus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory catalog of registered agents with secondary indexes on status, type and capability.
+ *
+ * The catalog is loaded from the database on first use and kept in sync from the agent-events
+ * fanout, which every node consumes through its own queue, or from the in-process event bus when
+ * that replaces RabbitMQ. Returned agents are shared snapshots and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AgentCatalog {
+
+    private final AgentRepository agentRepository;
+    private final ObjectProvider<InProcessEventBus> eventBus;
+
+    private final ConcurrentMap<String, Agent> agentsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AgentStatus, Set<String>> idsByStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> idsByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> idsByCapability = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    public List<Agent> findAll() {
+        ensureLoaded();
+        return new ArrayList<>(agentsById.values());
+    }
+
+    public Optional<Agent> findById(String id) {
+        ensureLoaded();
+        return Optional.ofNullable(agentsById.get(id));
+    }
+
+    public List<Agent> findByStatus(AgentStatus status) {
+        ensureLoaded();
+        return lookup(idsByStatus.get(status));
+    }
+
+    public List<Agent> findByType(String type) {
+        ensureLoaded();
+        return lookup(idsByType.get(type));
+    }
+
+    public List<Agent> findByCapability(String capability) {
+        ensureLoaded();
+        return lookup(idsByCapability.get(capability));
+    }
+
+    /**
+     * Store a snapshot of an agent that was just written on this node. Inside a transaction the
+     * catalog changes when it commits, so a rollback never leaves an uncommitted agent behind;
+     * the same applies to the other write methods.
+     */
+    public void put(Agent agent) {
+        Agent snapshot = snapshot(agent);
+        afterCommit(() -> store(snapshot));
+    }
+
+    public void remove(String agentId) {
+        afterCommit(() -> evict(agentId));
+    }
+
+    public void updateStatus(String agentId, AgentStatus status) {
+        afterCommit(() -> applyStatus(agentId, status));
+    }
+
+    public void updateLastHealthCheck(String agentId, LocalDateTime checkedAt) {
+        afterCommit(() -> applyLastHealthCheck(agentId, checkedAt));
+    }
+
+    private synchronized void store(Agent snapshot) {
+        unindex(agentsById.put(snapshot.getId(), snapshot));
+        index(snapshot);
+    }
+
+    private synchronized void evict(String agentId) {
+        unindex(agentsById.remove(agentId));
+    }
+
+    private synchronized void applyStatus(String agentId, AgentStatus status) {
+        Agent current = agentsById.get(agentId);
+        if (current == null || current.getStatus() == status) {
+            return;
+        }
+        Agent snapshot = snapshot(current);
+        snapshot.setStatus(status);
+        unindex(agentsById.put(agentId, snapshot));
+        index(snapshot);
+    }
+
+    private synchronized void applyLastHealthCheck(String agentId, LocalDateTime checkedAt) {
+        Agent current = agentsById.get(agentId);
+        if (current == null) {
+            return;
+        }
+        // Not an indexed field, so the snapshot can be swapped without re-indexing
+        Agent snapshot = snapshot(current);
+        snapshot.setLastHealthCheck(checkedAt);
+        agentsById.put(agentId, snapshot);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventBus.ifAvailable(bus -> bus.subscribe(AgentEvent.class, this::onAgentEvent));
+    }
+
+    @RabbitListener(queues = "#{agentCatalogQueue.name}", autoStartup = "#{'${events.publisher:batching}' != 'inprocess'}")
+    public void onAgentEvent(AgentEvent event) {
+        if (event.getType() == null || event.getAgentId() == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case REGISTERED, UPDATED -> refresh(event.getAgentId());
+            case DELETED -> evict(event.getAgentId());
+            case STATUS_CHANGED -> applyStatus(event.getAgentId(), event.getStatus());
+            case HEALTH_CHECK -> applyLastHealthCheck(event.getAgentId(), event.getTimestamp());
+            default -> {
+                // Execution events do not change the catalog
+            }
+        }
+    }
+
+    private void refresh(String agentId) {
+        // A missing row can mean the writer has not committed yet; only DELETED removes entries
+        agentRepository.findWithMetadataById(agentId).map(this::snapshot).ifPresent(this::store);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<Agent> agents = agentRepository.findAllWithMetadataBy();
+            agents.forEach(agent -> store(snapshot(agent)));
+            loaded = true;
+            log.info("Loaded {} agents into catalog", agents.size());
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private List<Agent> lookup(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Agent> agents = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Agent agent = agentsById.get(id);
+            if (agent != null) {
+                agents.add(agent);
+            }
+        }
+        return agents;
+    }
+
+    private void index(Agent agent) {
+        if (agent.getStatus() != null) {
+            idsByStatus.computeIfAbsent(agent.getStatus(), key -> ConcurrentHashMap.newKeySet()).add(agent.getId());
+        }
+        idsByType.computeIfAbsent(agent.getType(), key -> ConcurrentHashMap.newKeySet()).add(agent.getId());
+        idsByCapability.computeIfAbsent(agent.getCapability(), key -> ConcurrentHashMap.newKeySet()).add(agent.getId());
+    }
+
+    private void unindex(Agent agent) {
+        if (agent == null) {
+            return;
+        }
+        if (agent.getStatus() != null) {
+            removeFromIndex(idsByStatus, agent.getStatus(), agent.getId());
+        }
+        removeFromIndex(idsByType, agent.getType(), agent.getId());
+        removeFromIndex(idsByCapability, agent.getCapability(), agent.getId());
+    }
+
+    private <K> void removeFromIndex(ConcurrentMap<K, Set<String>> index, K key, String agentId) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(agentId);
+        }
+    }
+
+    // Detached copy so cached agents never hold a lazy collection or a live persistence context
+    private Agent snapshot(Agent agent) {
+        Map<String, String> metadata = agent.getMetadata() != null ? new HashMap<>(agent.getMetadata()) : new HashMap<>();
+        return Agent.builder()
+                .id(agent.getId())
+                .name(agent.getName())
+                .description(agent.getDescription())
+                .type(agent.getType())
+                .capability(agent.getCapability())
+                .status(agent.getStatus())
+                .metadata(metadata)
+                .tools(agent.getTools() != null ? new HashSet<>(agent.getTools()) : new HashSet<>())
+                .createdAt(agent.getCreatedAt())
+                .updatedAt(agent.getUpdatedAt())
+                .lastHealthCheck(agent.getLastHealthCheck())
+                .build();
+    }
+}
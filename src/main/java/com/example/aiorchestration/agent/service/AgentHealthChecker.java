@@ -0,0 +1,210 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically probes agents whose last health check is stale.
+ *
+ * Agents share the provider, so the sweep pings each model the stale agents would be routed to
+ * once, with a one-token completion paid for from the token budget, rather than once per agent.
+ * Probes run on their own pool and the sweep returns straight away; results are applied when the
+ * probes finish or the sweep budget runs out, so the scheduler thread is never held. Checked agents
+ * are stamped with one batched update; agents whose model fails or answers too slowly are put in
+ * ERROR straight away so the router stops selecting them.
+ */
+@Service
+@Slf4j
+public class AgentHealthChecker {
+
+    private static final String PROBE_PROMPT = "ping";
+
+    private final AgentCatalog agentCatalog;
+    private final AgentManagementService agentService;
+    private final AgentStateRegistry agentStateRegistry;
+    private final ModelRouter modelRouter;
+    private final TokenRateLimiter tokenRateLimiter;
+    private final ChatClient chatClient;
+    private final Executor healthCheckExecutor;
+
+    // A sweep still waiting on its probes makes the next tick a no-op
+    private final AtomicBoolean sweepInProgress = new AtomicBoolean();
+
+    @Value("${agent.health.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${agent.health.probe-timeout-ms:5000}")
+    private long probeTimeoutMs;
+
+    @Value("${agent.health.sweep-budget-ms:30000}")
+    private long sweepBudgetMs;
+
+    AgentHealthChecker(AgentCatalog agentCatalog,
+                       AgentManagementService agentService,
+                       AgentStateRegistry agentStateRegistry,
+                       ModelRouter modelRouter,
+                       TokenRateLimiter tokenRateLimiter,
+                       ChatClient.Builder chatClient,
+                       @Qualifier("healthCheckExecutor") Executor healthCheckExecutor) {
+        this.agentCatalog = agentCatalog;
+        this.agentService = agentService;
+        this.agentStateRegistry = agentStateRegistry;
+        this.modelRouter = modelRouter;
+        this.tokenRateLimiter = tokenRateLimiter;
+        this.chatClient = chatClient.build();
+        this.healthCheckExecutor = healthCheckExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${agent.health.interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs));
+        List<Agent> staleAgents = agentCatalog.findAll().stream()
+                .filter(agent -> agent.getLastHealthCheck() != null && agent.getLastHealthCheck().isBefore(staleBefore))
+                .toList();
+        if (staleAgents.isEmpty() || !sweepInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Map<String, CompletableFuture<Boolean>> pingsByModel = new HashMap<>();
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>(staleAgents.size());
+        for (Agent agent : staleAgents) {
+            probes.add(probe(agent, pingsByModel));
+        }
+
+        CompletableFuture.allOf(probes.toArray(new CompletableFuture[0]))
+                .completeOnTimeout(null, sweepBudgetMs, TimeUnit.MILLISECONDS)
+                // Off the timer thread: recording the results writes to the database
+                .whenCompleteAsync((ignored, error) -> {
+                    try {
+                        recordResults(staleAgents, probes, pingsByModel.size(), startNanos);
+                    } finally {
+                        sweepInProgress.set(false);
+                    }
+                }, healthCheckExecutor);
+    }
+
+    /**
+     * Probe one agent and apply the outcome to its live state as soon as it is known, so routing
+     * reacts even when the probe finishes after the sweep budget. Completes with null when the
+     * agent could not be probed this time.
+     */
+    private CompletableFuture<Boolean> probe(Agent agent, Map<String, CompletableFuture<Boolean>> pingsByModel) {
+        AgentStateRegistry.AgentState state = agentStateRegistry.get(agent);
+
+        // A real call that succeeded since the agent went stale already proves it is reachable
+        if (System.currentTimeMillis() - state.getLastSuccessMillis() < staleAfterMs) {
+            state.markHealthy();
+            return CompletableFuture.completedFuture(true);
+        }
+
+        // The cheapest model the router would pick for this agent
+        String model = modelRouter.candidates(agent, PROBE_PROMPT).get(0);
+        return pingsByModel
+                .computeIfAbsent(model, m -> CompletableFuture.supplyAsync(() -> ping(m), healthCheckExecutor))
+                .thenApply(healthy -> {
+                    if (Boolean.TRUE.equals(healthy)) {
+                        state.markHealthy();
+                    } else if (Boolean.FALSE.equals(healthy)) {
+                        state.markError();
+                    }
+                    return healthy;
+                });
+    }
+
+    private void recordResults(List<Agent> staleAgents, List<CompletableFuture<Boolean>> probes,
+                               int pingedModels, long startNanos) {
+        if (probes.stream().anyMatch(probe -> !probe.isDone())) {
+            log.warn("Health sweep exceeded its {}ms budget; unfinished agents are checked next sweep", sweepBudgetMs);
+        }
+
+        List<Agent> checked = new ArrayList<>(staleAgents.size());
+        int unhealthy = 0;
+        for (int i = 0; i < staleAgents.size(); i++) {
+            Boolean healthy = probes.get(i).getNow(null);
+            if (healthy == null) {
+                continue;
+            }
+            if (!healthy) {
+                unhealthy++;
+            }
+            checked.add(staleAgents.get(i));
+        }
+
+        try {
+            agentService.recordHealthChecks(checked, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Recording health checks failed: {}", e.getMessage());
+            return;
+        }
+        log.info("Health sweep checked {} of {} stale agents ({} unhealthy, {} models pinged) in {}ms",
+                checked.size(), staleAgents.size(), unhealthy, pingedModels,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * @return Whether the model answered within the probe limit, or null if the token budget had no
+     *         room for the probe
+     */
+    private Boolean ping(String model) {
+        TokenRateLimiter.Reservation reservation;
+        try {
+            reservation = tokenRateLimiter.acquire(tokenRateLimiter.estimate(PROBE_PROMPT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IllegalStateException e) {
+            log.debug("No token budget for the health probe of model {}", model);
+            return null;
+        }
+
+        long startNanos = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = chatClient.prompt()
+                    .user(PROBE_PROMPT)
+                    .options(ChatOptions.builder().model(model).maxTokens(1).build())
+                    .call()
+                    .chatResponse();
+        } catch (Exception e) {
+            tokenRateLimiter.release(reservation);
+            log.warn("Health probe failed for model {}: {}", model, e.getMessage());
+            return false;
+        }
+        tokenRateLimiter.reconcile(reservation, totalTokens(response));
+
+        // Time from the start of the probe, not from submission, so queued probes are not penalised
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (elapsedMs > probeTimeoutMs) {
+            log.warn("Health probe for model {} took {}ms, over the {}ms limit", model, elapsedMs, probeTimeoutMs);
+            return false;
+        }
+        return true;
+    }
+
+    private long totalTokens(ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return 0;
+        }
+        Number totalTokens = response.getMetadata().getUsage().getTotalTokens();
+        return totalTokens != null ? totalTokens.longValue() : 0;
+    }
+}
@@ -4,25 +4,42 @@ import com.example.aiorchestration.agent.event.AgentEvent;
 import com.example.aiorchestration.agent.event.AgentEventType;
 import com.example.aiorchestration.agent.model.*;
 import com.example.aiorchestration.agent.repository.AgentRepository;
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.config.RabbitMQConfig;
+import com.example.aiorchestration.event.EventPublisher;
+import com.example.aiorchestration.metrics.OrchestrationMetrics;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -30,14 +47,38 @@ public class AgentManagementService {
 
     private final AgentRepository agentRepository;
     private final ChatClient chatClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final EventPublisher eventPublisher;
+    private final TokenRateLimiter tokenRateLimiter;
+    private final AgentStateRegistry agentStateRegistry;
+    private final AgentCatalog agentCatalog;
+    private final ConversationMemoryStore conversationMemoryStore;
+    private final AgentToolExecutor agentToolExecutor;
+    private final ModelRouter modelRouter;
+    private final OrchestrationMetrics metrics;
+    private final int maxToolRounds;
 
     AgentManagementService(AgentRepository agentRepository,
                            ChatClient.Builder chatClient,
-                           RabbitTemplate rabbitTemplate) {
+                           EventPublisher eventPublisher,
+                           TokenRateLimiter tokenRateLimiter,
+                           AgentStateRegistry agentStateRegistry,
+                           AgentCatalog agentCatalog,
+                           ConversationMemoryStore conversationMemoryStore,
+                           AgentToolExecutor agentToolExecutor,
+                           ModelRouter modelRouter,
+                           OrchestrationMetrics metrics,
+                           @Value("${agent.tools.max-rounds:5}") int maxToolRounds) {
         this.agentRepository = agentRepository;
         this.chatClient = chatClient.build();
-        this.rabbitTemplate = rabbitTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tokenRateLimiter = tokenRateLimiter;
+        this.agentStateRegistry = agentStateRegistry;
+        this.agentCatalog = agentCatalog;
+        this.conversationMemoryStore = conversationMemoryStore;
+        this.agentToolExecutor = agentToolExecutor;
+        this.modelRouter = modelRouter;
+        this.metrics = metrics;
+        this.maxToolRounds = maxToolRounds;
     }
     
     @Transactional
@@ -47,6 +88,8 @@ public class AgentManagementService {
             throw new IllegalArgumentException("Agent with name " + request.getName() + " already exists");
         }
         
+        agentToolExecutor.validate(request.getTools());
+        
         // Create new agent
         Agent agent = Agent.builder()
                 .name(request.getName())
@@ -54,11 +97,13 @@ public class AgentManagementService {
                 .type(request.getType())
                 .capability(request.getCapability())
                 .metadata(request.getMetadata())
+                .tools(request.getTools() != null ? request.getTools() : new HashSet<>())
                 .status(AgentStatus.IDLE)
                 .build();
         
         // Save agent
         Agent savedAgent = agentRepository.save(agent);
+        agentCatalog.put(savedAgent);
         
         // Publish agent registered event
         publishAgentEvent(AgentEventType.REGISTERED, savedAgent);
@@ -66,35 +111,38 @@ public class AgentManagementService {
         return savedAgent;
     }
     
-    @Transactional(readOnly = true)
-    public List<Agent> getAllAgents() {
-        return agentRepository.findAll();
+    public CursorPage<Agent> getAgents(String cursor, int limit) {
+        return page(agentCatalog.findAll(), cursor, limit);
+    }
+    
+    public void streamAgents(Consumer<Agent> action) {
+        agentCatalog.findAll().forEach(action);
     }
     
-    @Transactional(readOnly = true)
     public Agent getAgentById(String id) {
-        return agentRepository.findById(id)
+        return agentCatalog.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Agent not found with id: " + id));
     }
     
-    @Transactional(readOnly = true)
-    public List<Agent> getAgentsByStatus(AgentStatus status) {
-        return agentRepository.findByStatus(status);
+    public CursorPage<Agent> getAgentsByStatus(AgentStatus status, String cursor, int limit) {
+        return page(agentCatalog.findByStatus(status), cursor, limit);
+    }
+    
+    public void streamAgentsByStatus(AgentStatus status, Consumer<Agent> action) {
+        agentCatalog.findByStatus(status).forEach(action);
     }
     
-    @Transactional(readOnly = true)
     public List<Agent> getAgentsByType(String type) {
-        return agentRepository.findByType(type);
+        return agentCatalog.findByType(type);
     }
     
-    @Transactional(readOnly = true)
     public List<Agent> getAgentsByCapability(String capability) {
-        return agentRepository.findByCapability(capability);
+        return agentCatalog.findByCapability(capability);
     }
     
     @Transactional
     public Agent updateAgent(String id, AgentRegistrationRequest request) {
-        Agent agent = getAgentById(id);
+        Agent agent = loadAgent(id);
         
         // Check if name is being changed and if new name already exists
         if (!agent.getName().equals(request.getName()) && 
@@ -102,15 +150,19 @@ public class AgentManagementService {
             throw new IllegalArgumentException("Agent with name " + request.getName() + " already exists");
         }
         
+        agentToolExecutor.validate(request.getTools());
+        
         // Update agent
         agent.setName(request.getName());
         agent.setDescription(request.getDescription());
         agent.setType(request.getType());
         agent.setCapability(request.getCapability());
         agent.setMetadata(request.getMetadata());
+        agent.setTools(request.getTools() != null ? request.getTools() : new HashSet<>());
         
         // Save agent
         Agent updatedAgent = agentRepository.save(agent);
+        agentCatalog.put(updatedAgent);
         
         // Publish agent updated event
         publishAgentEvent(AgentEventType.UPDATED, updatedAgent);
@@ -120,10 +172,12 @@ public class AgentManagementService {
     
     @Transactional
     public void deleteAgent(String id) {
-        Agent agent = getAgentById(id);
+        Agent agent = loadAgent(id);
         
         // Delete agent
         agentRepository.delete(agent);
+        agentStateRegistry.remove(id);
+        agentCatalog.remove(id);
         
         // Publish agent deleted event
         publishAgentEvent(AgentEventType.DELETED, agent);
@@ -131,13 +185,15 @@ public class AgentManagementService {
     
     @Transactional
     public Agent updateAgentStatus(String id, AgentStatus status) {
-        Agent agent = getAgentById(id);
+        Agent agent = loadAgent(id);
         
         // Update status
         agent.setStatus(status);
         
         // Save agent
         Agent updatedAgent = agentRepository.save(agent);
+        agentStateRegistry.get(updatedAgent).setStatus(status);
+        agentCatalog.updateStatus(id, status);
         
         // Publish agent status changed event
         publishAgentEvent(AgentEventType.STATUS_CHANGED, updatedAgent);
@@ -146,35 +202,71 @@ public class AgentManagementService {
     }
     
     @Async
-    @Transactional
     @CircuitBreaker(name = "agentExecution", fallbackMethod = "executeAgentFallback")
     @Retry(name = "agentExecution")
     public CompletableFuture<AgentResponse> executeAgent(String id, AgentRequest request) {
         Agent agent = getAgentById(id);
         
-        // Update agent status to WORKING
-        updateAgentStatus(id, AgentStatus.WORKING);
+        // Mark agent WORKING in memory; the agents row is updated by the periodic flush
+        AgentStateRegistry.AgentState state = agentStateRegistry.get(agent);
+        state.callStarted();
+        long startNanos = System.nanoTime();
         
         // Publish agent execution started event
         publishAgentEvent(AgentEventType.EXECUTION_STARTED, agent);
         
         try {
-            // Create message for AI model
-            Message userMessage = new UserMessage(request.getPrompt());
-            Prompt prompt = new Prompt(userMessage);
+            // Create messages for AI model: supporting context, prior turns, then the prompt
+            List<Message> messages = new ArrayList<>();
+            if (request.getContext() != null) {
+                messages.add(new SystemMessage(request.getContext()));
+            }
+            if (request.getConversationId() != null) {
+                messages.addAll(conversationMemoryStore.history(request.getConversationId()));
+            }
+            messages.add(new UserMessage(request.getPrompt()));
+            
+            List<ToolCallback> tools = agentToolExecutor.toolsFor(agent);
             
-            // Execute AI model
-            ChatResponse response = chatClient.prompt(prompt).call().chatResponse();
+            // Try the routed models in turn, escalating on a model failure or an unreliable answer
+            List<String> models = modelRouter.candidates(agent, new Prompt(messages).getContents());
+            ChatResponse response = null;
+            for (int i = 0; i < models.size(); i++) {
+                String model = models.get(i);
+                boolean lastModel = i == models.size() - 1;
+                try {
+                    response = converse(agent, new ArrayList<>(messages), tools, model);
+                } catch (RuntimeException e) {
+                    if (lastModel || !modelRouter.isModelFailure(e)) {
+                        throw e;
+                    }
+                    log.warn("Model {} failed for agent {}, escalating: {}", model, id, e.getMessage());
+                    continue;
+                }
+                if (lastModel || !modelRouter.isLowConfidence(response)) {
+                    break;
+                }
+                log.info("Low-confidence answer from model {} for agent {}, escalating", model, id);
+            }
+            
+            long durationNanos = System.nanoTime() - startNanos;
+            metrics.recordAgentCall(agent.getName(), response.getMetadata().getModel(), true, durationNanos);
             
             // Create agent response
+            String result = response.getResult().getOutput().getText();
             AgentResponse agentResponse = AgentResponse.builder()
                     .agentId(id)
-                    .result(Objects.requireNonNull(response).getResult().getOutput().getText())
+                    .result(result)
                     .success(true)
                     .build();
             
-            // Update agent status to COMPLETE
-            updateAgentStatus(id, AgentStatus.COMPLETE);
+            // Remember the turn for the next call in this conversation
+            if (request.getConversationId() != null) {
+                conversationMemoryStore.appendTurn(request.getConversationId(), request.getPrompt(), result);
+            }
+            
+            // Record success; status returns to COMPLETE once no other call is in flight
+            state.callSucceeded(durationNanos);
             
             // Publish agent execution completed event
             publishAgentEvent(AgentEventType.EXECUTION_COMPLETED, agent);
@@ -183,8 +275,10 @@ public class AgentManagementService {
         } catch (Exception e) {
             log.error("Error executing agent: {}", e.getMessage(), e);
             
-            // Update agent status to ERROR
-            updateAgentStatus(id, AgentStatus.ERROR);
+            // Record failure and move agent to ERROR
+            long durationNanos = System.nanoTime() - startNanos;
+            state.callFailed(durationNanos);
+            metrics.recordAgentCall(agent.getName(), null, false, durationNanos);
             
             // Publish agent execution failed event
             publishAgentEvent(AgentEventType.EXECUTION_FAILED, agent);
@@ -197,12 +291,11 @@ public class AgentManagementService {
         log.error("Fallback for agent execution: {}", id, throwable);
         
         // Get agent
-        Optional<Agent> agentOpt = agentRepository.findById(id);
+        Optional<Agent> agentOpt = agentCatalog.findById(id);
         
-        // Update agent status to ERROR if agent exists
+        // Update agent status to ERROR if agent exists; persisted by the next flush
         agentOpt.ifPresent(agent -> {
-            agent.setStatus(AgentStatus.ERROR);
-            agentRepository.save(agent);
+            agentStateRegistry.get(agent).markError();
             
             // Publish agent execution failed event
             publishAgentEvent(AgentEventType.EXECUTION_FAILED, agent);
@@ -221,7 +314,7 @@ public class AgentManagementService {
     
     @Transactional
     public void performHealthCheck(String id) {
-        Agent agent = getAgentById(id);
+        Agent agent = loadAgent(id);
         
         // Update last health check timestamp
         agent.setLastHealthCheck(LocalDateTime.now());
@@ -233,6 +326,148 @@ public class AgentManagementService {
         publishAgentEvent(AgentEventType.HEALTH_CHECK, agent);
     }
     
+    /**
+     * Stamp the health check time of a batch of probed agents with a single update.
+     */
+    @Transactional
+    public void recordHealthChecks(List<Agent> agents, LocalDateTime checkedAt) {
+        if (agents.isEmpty()) {
+            return;
+        }
+        
+        agentRepository.updateLastHealthCheck(agents.stream().map(Agent::getId).toList(), checkedAt);
+        
+        for (Agent agent : agents) {
+            agentCatalog.updateLastHealthCheck(agent.getId(), checkedAt);
+            
+            // Publish agent health check event
+            publishAgentEvent(AgentEventType.HEALTH_CHECK, agent);
+        }
+    }
+    
+    /**
+     * Persist live agent statuses that changed since the last flush, one bulk update per status.
+     */
+    @Scheduled(fixedDelayString = "${agent.status.flush-interval-ms:1000}")
+    @Transactional
+    public void flushAgentStatuses() {
+        List<AgentStateRegistry.DirtyAgent> dirtyAgents = agentStateRegistry.dirtyAgents();
+        if (dirtyAgents.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Map<AgentStatus, List<String>> idsByStatus = dirtyAgents.stream()
+                .collect(Collectors.groupingBy(AgentStateRegistry.DirtyAgent::status,
+                        Collectors.mapping(AgentStateRegistry.DirtyAgent::agentId, Collectors.toList())));
+        idsByStatus.forEach((status, ids) -> agentRepository.updateStatus(ids, status, now));
+        
+        for (AgentStateRegistry.DirtyAgent dirtyAgent : dirtyAgents) {
+            agentStateRegistry.markPersisted(dirtyAgent);
+            agentCatalog.updateStatus(dirtyAgent.agentId(), dirtyAgent.status());
+            
+            // Publish agent status changed event for the persisted transition
+            publishAgentEvent(AgentEvent.builder()
+                    .type(AgentEventType.STATUS_CHANGED)
+                    .agentId(dirtyAgent.agentId())
+                    .agentName(dirtyAgent.agentName())
+                    .status(dirtyAgent.status())
+                    .timestamp(now)
+                    .build());
+        }
+        
+        log.debug("Flushed status for {} agents", dirtyAgents.size());
+    }
+    
+    // The catalog already holds every agent, so pages are cut from it rather than queried
+    private CursorPage<Agent> page(List<Agent> agents, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        String[] after = CursorPage.decodeCursor(cursor, 1);
+        List<Agent> rows = agents.stream()
+                .filter(agent -> after == null || agent.getId().compareTo(after[0]) > 0)
+                .sorted(Comparator.comparing(Agent::getId))
+                .limit(pageSize + 1)
+                .toList();
+        return CursorPage.of(rows, pageSize, agent -> CursorPage.encodeCursor(agent.getId()));
+    }
+    
+    // Managed entity for write paths; reads are served from the catalog
+    private Agent loadAgent(String id) {
+        return agentRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Agent not found with id: " + id));
+    }
+    
+    private TokenRateLimiter.Reservation reserveTokens(String promptText) {
+        try {
+            return tokenRateLimiter.acquire(tokenRateLimiter.estimate(promptText));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for token budget", e);
+        }
+    }
+    
+    /**
+     * Run one model conversation: offer the agent's tools and answer the tool calls the model makes
+     * until it gives its final answer. Calls of one turn run in parallel; tool execution stays here
+     * rather than inside the model client.
+     */
+    private ChatResponse converse(Agent agent, List<Message> messages, List<ToolCallback> tools, String model) {
+        ToolCallingChatOptions.Builder options = ToolCallingChatOptions.builder().model(model);
+        if (!tools.isEmpty()) {
+            options.toolCallbacks(tools).internalToolExecutionEnabled(false);
+        }
+        ChatOptions chatOptions = options.build();
+        
+        ChatResponse response = callModel(agent, new Prompt(messages, chatOptions), model);
+        
+        int toolRounds = 0;
+        while (response.hasToolCalls()) {
+            if (++toolRounds > maxToolRounds) {
+                throw new IllegalStateException("Agent " + agent.getId() + " exceeded " + maxToolRounds + " tool rounds");
+            }
+            AssistantMessage toolRequest = response.getResult().getOutput();
+            messages.add(toolRequest);
+            messages.add(agentToolExecutor.execute(agent, toolRequest.getToolCalls()));
+            response = callModel(agent, new Prompt(messages, chatOptions), model);
+        }
+        return response;
+    }
+    
+    private ChatResponse callModel(Agent agent, Prompt prompt, String model) {
+        // Hold the call until the tokens-per-minute budget can absorb it
+        TokenRateLimiter.Reservation reservation = reserveTokens(prompt.getContents());
+        
+        long startNanos = System.nanoTime();
+        ChatResponse response;
+        try {
+            response = Objects.requireNonNull(chatClient.prompt(prompt).call().chatResponse());
+        } catch (RuntimeException e) {
+            modelRouter.recordFailure(model, System.nanoTime() - startNanos);
+            // A failed call reports no usage; hand the reserved tokens back so errors do not throttle others
+            tokenRateLimiter.release(reservation);
+            throw e;
+        }
+        modelRouter.recordSuccess(model, System.nanoTime() - startNanos);
+        
+        // Settle the reservation against the usage the provider reported
+        tokenRateLimiter.reconcile(reservation, totalTokens(response));
+        
+        Usage usage = response.getMetadata().getUsage();
+        if (usage != null) {
+            metrics.recordTokens(agent.getName(), response.getMetadata().getModel(),
+                    usage.getPromptTokens(), usage.getCompletionTokens());
+        }
+        return response;
+    }
+    
+    private long totalTokens(ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return 0;
+        }
+        Number totalTokens = response.getMetadata().getUsage().getTotalTokens();
+        return totalTokens != null ? totalTokens.longValue() : 0;
+    }
+    
     private void publishAgentEvent(AgentEventType eventType, Agent agent) {
         AgentEvent event = AgentEvent.builder()
                 .type(eventType)
@@ -242,6 +477,10 @@ public class AgentManagementService {
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        rabbitTemplate.convertAndSend("agent-events", event);
+        publishAgentEvent(event);
+    }
+    
+    private void publishAgentEvent(AgentEvent event) {
+        eventPublisher.publish(RabbitMQConfig.AGENT_EVENTS_EXCHANGE, "", event);
     }
 }
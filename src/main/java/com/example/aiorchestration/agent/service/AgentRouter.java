@@ -0,0 +1,72 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import com.example.aiorchestration.agent.model.AgentStatus;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgentRouter {
+
+    private final AgentManagementService agentService;
+    private final AgentStateRegistry agentStateRegistry;
+
+    /**
+     * Pick an agent for a capability using power-of-two-choices: sample two candidates and keep the
+     * one with the lower latency/outstanding score. Idle agents are preferred; busy agents are only
+     * considered when none is idle.
+     *
+     * @param capability The capability the caller needs
+     * @return The selected agent
+     */
+    public Agent selectAgent(String capability) {
+        List<Agent> agents = agentService.getAgentsByCapability(capability);
+
+        List<Agent> candidates = agents.stream()
+                .filter(agent -> isIdle(agentStateRegistry.currentStatus(agent)))
+                .toList();
+
+        if (candidates.isEmpty()) {
+            candidates = agents.stream()
+                    .filter(agent -> agentStateRegistry.currentStatus(agent) != AgentStatus.ERROR)
+                    .toList();
+        }
+
+        if (candidates.isEmpty()) {
+            throw new EntityNotFoundException("No available agent with capability: " + capability);
+        }
+
+        Agent selected = chooseOfTwo(candidates);
+        log.debug("Routed capability {} to agent {}", capability, selected.getId());
+        return selected;
+    }
+
+    private Agent chooseOfTwo(List<Agent> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        Agent a = candidates.get(first);
+        Agent b = candidates.get(second);
+        return agentStateRegistry.get(a).score() <= agentStateRegistry.get(b).score() ? a : b;
+    }
+
+    // COMPLETE is the status an agent is left in after its last call, so it is idle as well
+    private boolean isIdle(AgentStatus status) {
+        return status == AgentStatus.IDLE || status == AgentStatus.COMPLETE;
+    }
+}
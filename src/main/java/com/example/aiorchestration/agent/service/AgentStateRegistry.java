@@ -0,0 +1,187 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import com.example.aiorchestration.agent.model.AgentStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, in-memory view of every agent's live status and call counters.
+ *
+ * Executions update this registry instead of writing the agent row on every call; the persisted
+ * status catches up when {@link AgentManagementService#flushAgentStatuses()} runs.
+ */
+@Component
+public class AgentStateRegistry {
+
+    // Weight of the newest latency sample in the moving average
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final ConcurrentMap<String, AgentState> states = new ConcurrentHashMap<>();
+
+    public AgentState get(Agent agent) {
+        return states.computeIfAbsent(agent.getId(), id -> new AgentState(agent.getName(), agent.getStatus()));
+    }
+
+    public AgentStatus currentStatus(Agent agent) {
+        AgentState state = states.get(agent.getId());
+        return state != null ? state.getStatus() : agent.getStatus();
+    }
+
+    public void remove(String agentId) {
+        states.remove(agentId);
+    }
+
+    /**
+     * @return Agents whose live status differs from the last persisted one
+     */
+    public List<DirtyAgent> dirtyAgents() {
+        List<DirtyAgent> dirty = new ArrayList<>();
+        states.forEach((id, state) -> {
+            AgentStatus status = state.getStatus();
+            if (status != state.persistedStatus.get()) {
+                dirty.add(new DirtyAgent(id, state.agentName, status));
+            }
+        });
+        return dirty;
+    }
+
+    public void markPersisted(DirtyAgent agent) {
+        AgentState state = states.get(agent.agentId());
+        if (state != null) {
+            state.persistedStatus.set(agent.status());
+        }
+    }
+
+    public record DirtyAgent(String agentId, String agentName, AgentStatus status) {
+    }
+
+    public static final class AgentState {
+        private final String agentName;
+        // Status and in-flight count change together, so a call ending never overrides one starting
+        private final AtomicReference<Activity> activity;
+        private final AtomicReference<AgentStatus> persistedStatus;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToLongBits(0.0));
+        private final AtomicLong lastSuccessMillis = new AtomicLong();
+
+        private AgentState(String agentName, AgentStatus persistedStatus) {
+            this.agentName = agentName;
+            this.activity = new AtomicReference<>(new Activity(persistedStatus, 0, false));
+            this.persistedStatus = new AtomicReference<>(persistedStatus);
+        }
+
+        public void callStarted() {
+            activity.updateAndGet(current ->
+                    new Activity(AgentStatus.WORKING, current.inFlight() + 1, current.failedWhileBusy()));
+        }
+
+        public void callSucceeded(long latencyNanos) {
+            completed.incrementAndGet();
+            lastSuccessMillis.set(System.currentTimeMillis());
+            recordLatency(latencyNanos);
+            activity.updateAndGet(current -> current.callEnded(false));
+        }
+
+        public void callFailed(long latencyNanos) {
+            failed.incrementAndGet();
+            recordLatency(latencyNanos);
+            activity.updateAndGet(current -> current.callEnded(true));
+        }
+
+        public void markError() {
+            activity.updateAndGet(current -> current.withStatus(AgentStatus.ERROR));
+        }
+
+        /**
+         * Return an agent in ERROR to routing after a successful health probe.
+         */
+        public void markHealthy() {
+            activity.updateAndGet(current -> current.inFlight() == 0 && current.status() == AgentStatus.ERROR
+                    ? current.withStatus(AgentStatus.IDLE)
+                    : current);
+        }
+
+        /**
+         * Apply a status that has already been written to the agents row.
+         */
+        public void setStatus(AgentStatus newStatus) {
+            activity.updateAndGet(current -> current.withStatus(newStatus));
+            persistedStatus.set(newStatus);
+        }
+
+        public AgentStatus getStatus() {
+            return activity.get().status();
+        }
+
+        public int getInFlight() {
+            return activity.get().inFlight();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getLastSuccessMillis() {
+            return lastSuccessMillis.get();
+        }
+
+        public double getEwmaLatencyMs() {
+            return Double.longBitsToDouble(ewmaLatencyBits.get());
+        }
+
+        /**
+         * Expected cost of sending one more call to this agent; lower is better.
+         */
+        public double score() {
+            return (getEwmaLatencyMs() + 1.0) * (getInFlight() + 1);
+        }
+
+        private void recordLatency(long latencyNanos) {
+            double sampleMs = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            long current;
+            long updated;
+            do {
+                current = ewmaLatencyBits.get();
+                double average = Double.longBitsToDouble(current);
+                double next = average == 0.0 ? sampleMs : average + EWMA_ALPHA * (sampleMs - average);
+                updated = Double.doubleToLongBits(next);
+            } while (!ewmaLatencyBits.compareAndSet(current, updated));
+        }
+
+        /**
+         * Status and in-flight calls as one value. The status only leaves WORKING when the last
+         * call ends: ERROR if any call failed since the agent was last idle, COMPLETE otherwise.
+         */
+        private record Activity(AgentStatus status, int inFlight, boolean failedWhileBusy) {
+
+            Activity callEnded(boolean failed) {
+                int remaining = Math.max(0, inFlight - 1);
+                boolean anyFailed = failedWhileBusy || failed;
+                if (remaining > 0) {
+                    return new Activity(status, remaining, anyFailed);
+                }
+                if (anyFailed) {
+                    return new Activity(AgentStatus.ERROR, 0, false);
+                }
+                return new Activity(status == AgentStatus.WORKING ? AgentStatus.COMPLETE : status, 0, false);
+            }
+
+            Activity withStatus(AgentStatus newStatus) {
+                return new Activity(newStatus, inFlight, failedWhileBusy);
+            }
+        }
+    }
+}
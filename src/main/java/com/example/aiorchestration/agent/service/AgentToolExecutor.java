@@ -0,0 +1,153 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the tools an agent may use and runs the tool calls a model requests.
+ *
+ * All calls of one model turn run in parallel on the agent executor, each bounded by its own
+ * timeout. Failures and timeouts are reported back to the model as the tool's result instead of
+ * failing the agent call. Successful results are cached by tool name and arguments for a short
+ * time, so registered tools must be side-effect free lookups.
+ */
+@Component
+@Slf4j
+public class AgentToolExecutor {
+
+    private final Map<String, ToolCallback> toolsByName;
+    private final Executor agentExecutor;
+    private final long timeoutMs;
+    private final long cacheTtlMs;
+    private final Map<String, CachedResult> resultCache;
+
+    public AgentToolExecutor(List<ToolCallback> toolCallbacks,
+                             @Qualifier("agentExecutor") Executor agentExecutor,
+                             @Value("${agent.tools.timeout-ms:10000}") long timeoutMs,
+                             @Value("${agent.tools.cache-ttl-ms:60000}") long cacheTtlMs,
+                             @Value("${agent.tools.cache-size:1000}") int cacheSize) {
+        this.toolsByName = toolCallbacks.stream()
+                .collect(Collectors.toMap(tool -> tool.getToolDefinition().name(), Function.identity()));
+        this.agentExecutor = agentExecutor;
+        this.timeoutMs = timeoutMs;
+        this.cacheTtlMs = cacheTtlMs;
+        this.resultCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException If a name does not match a registered tool
+     */
+    public void validate(Collection<String> toolNames) {
+        if (toolNames == null) {
+            return;
+        }
+        for (String toolName : toolNames) {
+            if (!toolsByName.containsKey(toolName)) {
+                throw new IllegalArgumentException("Unknown tool: " + toolName);
+            }
+        }
+    }
+
+    public List<ToolCallback> toolsFor(Agent agent) {
+        if (agent.getTools() == null || agent.getTools().isEmpty()) {
+            return List.of();
+        }
+        List<ToolCallback> tools = new ArrayList<>(agent.getTools().size());
+        for (String toolName : agent.getTools()) {
+            ToolCallback tool = toolsByName.get(toolName);
+            if (tool != null) {
+                tools.add(tool);
+            }
+        }
+        return tools;
+    }
+
+    /**
+     * Run every tool call of one model turn and collect the results in request order.
+     */
+    public ToolResponseMessage execute(Agent agent, List<AssistantMessage.ToolCall> toolCalls) {
+        List<CompletableFuture<ToolResponseMessage.ToolResponse>> futures = new ArrayList<>(toolCalls.size());
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            futures.add(execute(agent, toolCall));
+        }
+
+        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(toolCalls.size());
+        for (CompletableFuture<ToolResponseMessage.ToolResponse> future : futures) {
+            responses.add(future.join());
+        }
+        return new ToolResponseMessage(responses);
+    }
+
+    private CompletableFuture<ToolResponseMessage.ToolResponse> execute(Agent agent, AssistantMessage.ToolCall toolCall) {
+        ToolCallback tool = agent.getTools() != null && agent.getTools().contains(toolCall.name())
+                ? toolsByName.get(toolCall.name())
+                : null;
+        if (tool == null) {
+            return CompletableFuture.completedFuture(response(toolCall, error("tool is not available to this agent")));
+        }
+
+        String cacheKey = toolCall.name() + '\u0000' + toolCall.arguments();
+        CachedResult cached = resultCache.get(cacheKey);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return CompletableFuture.completedFuture(response(toolCall, cached.result()));
+        }
+
+        CompletableFuture<String> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> tool.call(toolCall.arguments()), agentExecutor);
+        } catch (RuntimeException e) {
+            // Executor saturated; let the model know rather than failing the whole call
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(output -> {
+                    resultCache.put(cacheKey, new CachedResult(output, System.currentTimeMillis() + cacheTtlMs));
+                    return response(toolCall, output);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    String message = cause instanceof TimeoutException
+                            ? "timed out after " + timeoutMs + "ms"
+                            : String.valueOf(cause.getMessage());
+                    log.warn("Tool {} failed for agent {}: {}", toolCall.name(), agent.getId(), message);
+                    return response(toolCall, error(message));
+                });
+    }
+
+    private ToolResponseMessage.ToolResponse response(AssistantMessage.ToolCall toolCall, String result) {
+        return new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result);
+    }
+
+    private String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private record CachedResult(String result, long expiresAt) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.aiorchestration.agent.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded conversation history per conversation id.
+ *
+ * Each conversation is a ring buffer of its latest messages, held as UTF-8 byte arrays prefixed with
+ * a role byte, so a long-lived conversation costs about one byte per ASCII character and appending
+ * a turn never re-encodes earlier ones. The least recently used conversations are evicted once the
+ * configured number is exceeded. With Redis persistence enabled the same encoded entries are
+ * appended to a capped Redis list, from which an evicted conversation is reloaded on its next use.
+ */
+@Component
+@Slf4j
+public class ConversationMemoryStore {
+
+    private static final byte USER = 'U';
+    private static final byte ASSISTANT = 'A';
+    private static final byte SYSTEM = 'S';
+
+    private static final String KEY_PREFIX = "conversation:";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final int maxMessages;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Map<String, Conversation> conversations;
+
+    public ConversationMemoryStore(@Qualifier("conversationRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                                   @Value("${agent.memory.max-messages:20}") int maxMessages,
+                                   @Value("${agent.memory.max-conversations:10000}") int maxConversations,
+                                   @Value("${agent.memory.redis.enabled:false}") boolean redisEnabled,
+                                   @Value("${agent.memory.redis.ttl-minutes:1440}") long redisTtlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.maxMessages = maxMessages;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = Duration.ofMinutes(redisTtlMinutes);
+        this.conversations = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Conversation> eldest) {
+                return size() > maxConversations;
+            }
+        });
+    }
+
+    /**
+     * @return Prior turns of the conversation, oldest first
+     */
+    public List<Message> history(String conversationId) {
+        Conversation conversation = conversation(conversationId);
+        List<Message> messages = new ArrayList<>(maxMessages);
+        for (byte[] entry : conversation.snapshot()) {
+            messages.add(decode(entry));
+        }
+        return messages;
+    }
+
+    /**
+     * Record one completed turn: the prompt the agent received and the reply it gave.
+     */
+    public void appendTurn(String conversationId, String prompt, String reply) {
+        byte[] userEntry = encode(USER, prompt);
+        byte[] assistantEntry = encode(ASSISTANT, reply);
+        conversation(conversationId).append(userEntry, assistantEntry);
+
+        if (redisEnabled) {
+            persist(conversationId, userEntry, assistantEntry);
+        }
+    }
+
+    /**
+     * Drop the given conversations from memory and from Redis.
+     */
+    public void evict(Collection<String> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(conversationIds.size());
+        for (String conversationId : conversationIds) {
+            conversations.remove(conversationId);
+            keys.add(KEY_PREFIX + conversationId);
+        }
+        if (redisEnabled) {
+            try {
+                redisTemplate.delete(keys);
+            } catch (Exception e) {
+                log.warn("Failed to delete {} conversations from Redis: {}", keys.size(), e.getMessage());
+            }
+        }
+    }
+
+    private Conversation conversation(String conversationId) {
+        Conversation conversation = conversations.get(conversationId);
+        if (conversation != null) {
+            return conversation;
+        }
+
+        // Load outside the map lock; a racing loader for the same id simply loses to the first put
+        Conversation loaded = new Conversation(maxMessages);
+        if (redisEnabled) {
+            for (byte[] entry : load(conversationId)) {
+                loaded.append(entry);
+            }
+        }
+        Conversation existing = conversations.putIfAbsent(conversationId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private List<byte[]> load(String conversationId) {
+        try {
+            List<byte[]> entries = redisTemplate.opsForList().range(KEY_PREFIX + conversationId, -maxMessages, -1);
+            return entries != null ? entries : List.of();
+        } catch (Exception e) {
+            log.warn("Failed to load conversation {} from Redis: {}", conversationId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // One pipelined round trip: append the turn, cap the list and refresh its expiry
+    private void persist(String conversationId, byte[]... entries) {
+        byte[] key = (KEY_PREFIX + conversationId).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                pipelineTurn(connection, key, entries);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to persist conversation {} to Redis: {}", conversationId, e.getMessage());
+        }
+    }
+
+    private void pipelineTurn(RedisConnection connection, byte[] key, byte[]... entries) {
+        connection.listCommands().rPush(key, entries);
+        connection.listCommands().lTrim(key, -maxMessages, -1);
+        connection.keyCommands().expire(key, redisTtl.toSeconds());
+    }
+
+    private static byte[] encode(byte role, String text) {
+        byte[] utf8 = text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] entry = new byte[utf8.length + 1];
+        entry[0] = role;
+        System.arraycopy(utf8, 0, entry, 1, utf8.length);
+        return entry;
+    }
+
+    private static Message decode(byte[] entry) {
+        String text = new String(entry, 1, entry.length - 1, StandardCharsets.UTF_8);
+        return switch (entry[0]) {
+            case ASSISTANT -> new AssistantMessage(text);
+            case SYSTEM -> new SystemMessage(text);
+            default -> new UserMessage(text);
+        };
+    }
+
+    private static final class Conversation {
+        private final byte[][] entries;
+        private int head;
+        private int size;
+
+        private Conversation(int capacity) {
+            this.entries = new byte[capacity][];
+        }
+
+        synchronized void append(byte[]... newEntries) {
+            for (byte[] entry : newEntries) {
+                entries[(head + size) % entries.length] = entry;
+                if (size < entries.length) {
+                    size++;
+                } else {
+                    head = (head + 1) % entries.length;
+                }
+            }
+        }
+
+        synchronized byte[][] snapshot() {
+            byte[][] copy = new byte[size][];
+            for (int i = 0; i < size; i++) {
+                copy[i] = entries[(head + i) % entries.length];
+            }
+            return copy;
+        }
+    }
+}
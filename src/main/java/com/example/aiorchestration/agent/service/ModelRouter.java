@@ -0,0 +1,183 @@
+package com.example.aiorchestration.agent.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chooses the model for each agent call from tiers ordered from cheapest and fastest to largest.
+ *
+ * A call starts on the smallest tier that fits its prompt and the agent's hints, skipping tiers
+ * whose recent error rate or latency is degraded. If the model fails (timeout, server error, rate
+ * limit) or its answer looks unreliable (empty or cut off), the call is retried on the next tier up.
+ *
+ * Agent hints (metadata): {@value #MODEL_METADATA_KEY} pins one model and disables routing;
+ * {@value #MIN_MODEL_METADATA_KEY} names the smallest tier the agent may use.
+ */
+@Component
+@Slf4j
+public class ModelRouter {
+
+    public static final String MODEL_METADATA_KEY = "model";
+    public static final String MIN_MODEL_METADATA_KEY = "minModel";
+
+    // Weight of the newest sample in the latency and error-rate moving averages
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final TokenCountEstimator tokenCountEstimator;
+    private final List<String> tiers;
+    private final int[] tierMaxPromptTokens;
+    private final double maxErrorRate;
+    private final long maxLatencyMs;
+    private final long recoveryMs;
+    private final ConcurrentMap<String, ModelStats> statsByModel = new ConcurrentHashMap<>();
+
+    public ModelRouter(TokenCountEstimator tokenCountEstimator,
+                       @Value("${agent.models.tiers:${spring.ai.openai.chat.options.model}}") String[] tiers,
+                       @Value("${agent.models.tier-max-prompt-tokens:}") int[] tierMaxPromptTokens,
+                       @Value("${agent.models.max-error-rate:0.5}") double maxErrorRate,
+                       @Value("${agent.models.max-latency-ms:30000}") long maxLatencyMs,
+                       @Value("${agent.models.recovery-ms:30000}") long recoveryMs) {
+        if (tiers.length == 0) {
+            throw new IllegalStateException("At least one model tier must be configured");
+        }
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.tiers = Arrays.stream(tiers).map(String::trim).toList();
+        this.tierMaxPromptTokens = tierMaxPromptTokens;
+        this.maxErrorRate = maxErrorRate;
+        this.maxLatencyMs = maxLatencyMs;
+        this.recoveryMs = recoveryMs;
+    }
+
+    /**
+     * @return Models to try for this call, in escalation order
+     */
+    public List<String> candidates(Agent agent, String promptText) {
+        String pinned = agent.getMetadata().get(MODEL_METADATA_KEY);
+        if (pinned != null && !pinned.isBlank()) {
+            return List.of(pinned);
+        }
+
+        int start = Math.max(minTier(agent), tierForPromptSize(tokenCountEstimator.estimate(promptText)));
+
+        // Skip degraded tiers while a larger one remains to fall back on
+        while (start < tiers.size() - 1 && isDegraded(tiers.get(start))) {
+            log.debug("Skipping degraded model {}", tiers.get(start));
+            start++;
+        }
+        return new ArrayList<>(tiers.subList(start, tiers.size()));
+    }
+
+    /**
+     * An answer that is empty or was cut off by the token limit is worth retrying on a larger model.
+     */
+    public boolean isLowConfidence(ChatResponse response) {
+        Generation generation = response.getResult();
+        if (generation == null || generation.getOutput().getText() == null
+                || generation.getOutput().getText().isBlank()) {
+            return true;
+        }
+        String finishReason = generation.getMetadata() != null ? generation.getMetadata().getFinishReason() : null;
+        return finishReason != null && finishReason.equalsIgnoreCase("length");
+    }
+
+    /**
+     * Whether a failed call is worth retrying on another model: the provider timed out, was
+     * unreachable, returned a server error or rate-limited the model. Rejections of our own (token
+     * budget, tool rounds, bad input) would fail the same way on every tier.
+     */
+    public boolean isModelFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientAiException
+                    || cause instanceof ResourceAccessException
+                    || cause instanceof TimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+            // The provider's 429 surfaces as a non-transient client error
+            if (cause instanceof NonTransientAiException && cause.getMessage() != null
+                    && cause.getMessage().startsWith("429")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void recordSuccess(String model, long latencyNanos) {
+        stats(model).record(TimeUnit.NANOSECONDS.toMillis(latencyNanos), false);
+    }
+
+    public void recordFailure(String model, long latencyNanos) {
+        stats(model).record(TimeUnit.NANOSECONDS.toMillis(latencyNanos), true);
+    }
+
+    private int minTier(Agent agent) {
+        String minModel = agent.getMetadata().get(MIN_MODEL_METADATA_KEY);
+        int index = minModel != null ? tiers.indexOf(minModel.trim()) : -1;
+        return Math.max(index, 0);
+    }
+
+    // Tiers without a configured limit accept any prompt size
+    private int tierForPromptSize(int promptTokens) {
+        for (int i = 0; i < tiers.size(); i++) {
+            if (i >= tierMaxPromptTokens.length || promptTokens <= tierMaxPromptTokens[i]) {
+                return i;
+            }
+        }
+        return tiers.size() - 1;
+    }
+
+    private boolean isDegraded(String model) {
+        ModelStats stats = statsByModel.get(model);
+        if (stats == null || !stats.isDegraded(maxErrorRate, maxLatencyMs)) {
+            return false;
+        }
+        // A skipped tier gets no new samples; after a quiet period forget its history and try it again
+        if (System.currentTimeMillis() - stats.lastSampleMillis() > recoveryMs) {
+            statsByModel.remove(model, stats);
+            return false;
+        }
+        return true;
+    }
+
+    private ModelStats stats(String model) {
+        return statsByModel.computeIfAbsent(model, m -> new ModelStats());
+    }
+
+    private static final class ModelStats {
+        private double latencyMs = -1;
+        private double errorRate;
+        private long lastSampleMillis;
+
+        synchronized void record(long sampleLatencyMs, boolean failed) {
+            latencyMs = latencyMs < 0 ? sampleLatencyMs : latencyMs + EWMA_ALPHA * (sampleLatencyMs - latencyMs);
+            // Starts from zero so that a single failure does not mark a model degraded
+            errorRate += EWMA_ALPHA * ((failed ? 1.0 : 0.0) - errorRate);
+            lastSampleMillis = System.currentTimeMillis();
+        }
+
+        synchronized boolean isDegraded(double maxErrorRate, long maxLatencyMs) {
+            return errorRate > maxErrorRate || latencyMs > maxLatencyMs;
+        }
+
+        synchronized long lastSampleMillis() {
+            return lastSampleMillis;
+        }
+    }
+}
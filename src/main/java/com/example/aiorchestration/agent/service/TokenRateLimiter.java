@@ -0,0 +1,184 @@
+package com.example.aiorchestration.agent.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket sized to the model provider's tokens-per-minute quota.
+ *
+ * Callers reserve the estimated prompt tokens plus the completion allowance before dispatch and
+ * reconcile against the usage reported by the model afterwards. Requests that do not fit wait for
+ * the bucket to refill; a smaller request may overtake a larger one that is still waiting, unless
+ * the larger one has been waiting longer than the starvation limit.
+ */
+@Slf4j
+public class TokenRateLimiter {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private final long maxWaitNanos;
+    private final long starvationNanos;
+    private final long completionReserve;
+    private final TokenCountEstimator tokenCountEstimator;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition tokensAvailable = lock.newCondition();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private double available;
+    private long lastRefillNanos;
+
+    public TokenRateLimiter(long tokensPerMinute,
+                            long maxWaitMs,
+                            long starvationMs,
+                            long completionReserve,
+                            TokenCountEstimator tokenCountEstimator) {
+        if (tokensPerMinute <= 0) {
+            throw new IllegalArgumentException("Tokens per minute must be positive");
+        }
+        this.capacity = tokensPerMinute;
+        this.refillPerNano = tokensPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.starvationNanos = TimeUnit.MILLISECONDS.toNanos(starvationMs);
+        this.completionReserve = completionReserve;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.available = tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Estimate the tokens a request will be charged for: the prompt itself plus the completion
+     * allowance, which the provider counts against the quota up front.
+     *
+     * @param promptText The full text sent to the model
+     * @return Estimated tokens
+     */
+    public long estimate(String promptText) {
+        int promptTokens = promptText == null ? 0 : tokenCountEstimator.estimate(promptText);
+        return promptTokens + completionReserve;
+    }
+
+    /**
+     * Reserve tokens, waiting for the bucket to refill if needed.
+     *
+     * @param estimatedTokens Tokens expected to be consumed by the call
+     * @return The reservation to reconcile once the call completes
+     * @throws IllegalStateException if the tokens cannot be reserved within the maximum wait
+     */
+    public Reservation acquire(long estimatedTokens) throws InterruptedException {
+        long needed = Math.max(1, Math.min(estimatedTokens, capacity));
+        long arrival = System.nanoTime();
+        long deadline = arrival + maxWaitNanos;
+        Waiter waiter = new Waiter(arrival);
+
+        lock.lockInterruptibly();
+        try {
+            waiters.addLast(waiter);
+            try {
+                while (true) {
+                    refill();
+                    if (available >= needed && !blockedByStarvingWaiter(waiter)) {
+                        available -= needed;
+                        return new Reservation(needed);
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Token budget exhausted: " + needed
+                                + " tokens not available within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+                    }
+
+                    long untilRefilled = (long) Math.ceil((needed - available) / refillPerNano);
+                    tokensAvailable.awaitNanos(Math.min(remaining, Math.max(untilRefilled, TimeUnit.MILLISECONDS.toNanos(1))));
+                }
+            } finally {
+                waiters.remove(waiter);
+                // Leaving the queue may unblock requests held back behind this one
+                tokensAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Correct a reservation with the usage the provider actually reported.
+     *
+     * @param reservation The reservation taken before the call
+     * @param actualTokens Total tokens reported by the provider, or a non-positive value if unknown
+     */
+    public void reconcile(Reservation reservation, long actualTokens) {
+        if (actualTokens <= 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            refill();
+            // Over-estimates are refunded; under-estimates leave the bucket in debt until it refills
+            available = Math.max(-capacity, Math.min(capacity, available + reservation.tokens() - actualTokens));
+            tokensAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Reconciled token reservation: estimated={}, actual={}", reservation.tokens(), actualTokens);
+        }
+    }
+
+    /**
+     * Return a reservation whose call failed before the provider reported any usage.
+     *
+     * @param reservation The reservation taken before the call
+     */
+    public void release(Reservation reservation) {
+        lock.lock();
+        try {
+            refill();
+            available = Math.min(capacity, available + reservation.tokens());
+            tokensAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAvailableTokens() {
+        lock.lock();
+        try {
+            refill();
+            return (long) available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(capacity, available + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+
+    private boolean blockedByStarvingWaiter(Waiter waiter) {
+        Waiter oldest = waiters.peekFirst();
+        return oldest != null && oldest != waiter && System.nanoTime() - oldest.arrival > starvationNanos;
+    }
+
+    public record Reservation(long tokens) {
+    }
+
+    // Identity matters here: two waiters may share the same arrival time
+    private static final class Waiter {
+        private final long arrival;
+
+        private Waiter(long arrival) {
+            this.arrival = arrival;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.aiorchestration.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounds the bytes buffered for each WebSocket session on the client outbound channel.
+ *
+ * A session whose browser does not keep up accumulates unsent messages in its send buffer. Once
+ * the buffer holds more than {@code max-buffered-bytes} its new broadcast messages are dropped, well
+ * before the transport's own buffer limit would close the session, so a slow client loses updates
+ * instead of its connection and never delays the others. Control frames (connect, disconnect,
+ * errors) are always delivered.
+ */
+@Component
+public class SessionSendLimitInterceptor implements ChannelInterceptor {
+
+    private final int maxBufferedBytes;
+    private final ConcurrentMap<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final Counter droppedCounter;
+
+    public SessionSendLimitInterceptor(MeterRegistry meterRegistry,
+                                       @Value("${websocket.session.max-buffered-bytes:262144}") int maxBufferedBytes) {
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.droppedCounter = meterRegistry.counter("websocket.session.dropped");
+    }
+
+    void register(ConcurrentWebSocketSessionDecorator session) {
+        sessions.put(session.getId(), session);
+    }
+
+    void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        ConcurrentWebSocketSessionDecorator session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session != null && session.getBufferSize() > maxBufferedBytes) {
+            droppedCounter.increment();
+            return null;
+        }
+        return message;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.aiorchestration.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * The STOMP broker configuration of {@code @EnableWebSocketMessageBroker}, with a WebSocket handler
+ * that hands each session's send buffer to {@link SessionSendLimitInterceptor}. The broker itself
+ * is configured in {@link WebSocketConfig}.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final SessionSendLimitInterceptor sessionSendLimitInterceptor;
+
+    public WebSocketBrokerConfig(SessionSendLimitInterceptor sessionSendLimitInterceptor) {
+        this.sessionSendLimitInterceptor = sessionSendLimitInterceptor;
+    }
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        return new BufferTrackingWebSocketHandler(clientInboundChannel, clientOutboundChannel, sessionSendLimitInterceptor);
+    }
+
+    private static final class BufferTrackingWebSocketHandler extends SubProtocolWebSocketHandler {
+
+        private final SessionSendLimitInterceptor sessionSendLimitInterceptor;
+
+        private BufferTrackingWebSocketHandler(MessageChannel clientInboundChannel,
+                                               SubscribableChannel clientOutboundChannel,
+                                               SessionSendLimitInterceptor sessionSendLimitInterceptor) {
+            super(clientInboundChannel, clientOutboundChannel);
+            this.sessionSendLimitInterceptor = sessionSendLimitInterceptor;
+        }
+
+        @Override
+        protected WebSocketSession decorateSession(WebSocketSession session) {
+            WebSocketSession decorated = super.decorateSession(session);
+            if (decorated instanceof ConcurrentWebSocketSessionDecorator buffered) {
+                sessionSendLimitInterceptor.register(buffered);
+            }
+            return decorated;
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+            sessionSendLimitInterceptor.unregister(session.getId());
+            super.afterConnectionClosed(session, closeStatus);
+        }
+    }
+}
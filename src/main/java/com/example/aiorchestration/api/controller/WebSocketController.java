@@ -9,6 +9,8 @@ import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 @RequiredArgsConstructor
 @Slf4j
@@ -17,31 +19,47 @@ public class WebSocketController {
     private final SimpMessagingTemplate messagingTemplate;
     
     /**
-     * Handle agent events and broadcast to subscribers
+     * Send an agent event to the agent's subscribers
      * 
      * @param event The agent event
      */
     public void handleAgentEvent(AgentEvent event) {
-        log.info("Broadcasting agent event: {}", event.getType());
+        log.debug("Sending agent event: {}", event.getType());
         messagingTemplate.convertAndSend("/topic/agents/" + event.getAgentId(), event);
-        messagingTemplate.convertAndSend("/topic/agents", event);
     }
     
     /**
-     * Handle workflow events and broadcast to subscribers
+     * Send a workflow event to the workflow's and the execution's subscribers
      * 
      * @param event The workflow event
      */
     public void handleWorkflowEvent(WorkflowEvent event) {
-        log.info("Broadcasting workflow event: {}", event.getType());
+        log.debug("Sending workflow event: {}", event.getType());
         messagingTemplate.convertAndSend("/topic/workflows/" + event.getWorkflowId(), event);
-        messagingTemplate.convertAndSend("/topic/workflows", event);
         
         if (event.getExecutionId() != null) {
             messagingTemplate.convertAndSend("/topic/executions/" + event.getExecutionId(), event);
         }
     }
     
+    /**
+     * Broadcast one batch of agent events to all agent subscribers
+     * 
+     * @param events The latest event of each agent since the previous batch
+     */
+    public void broadcastAgentEvents(List<AgentEvent> events) {
+        messagingTemplate.convertAndSend("/topic/agents", events);
+    }
+    
+    /**
+     * Broadcast one batch of workflow events to all workflow subscribers
+     * 
+     * @param events The latest event of each execution since the previous batch
+     */
+    public void broadcastWorkflowEvents(List<WorkflowEvent> events) {
+        messagingTemplate.convertAndSend("/topic/workflows", events);
+    }
+    
     /**
      * Echo message for testing WebSocket connection
      * 
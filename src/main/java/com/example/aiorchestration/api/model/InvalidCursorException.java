@@ -0,0 +1,19 @@
+package com.example.aiorchestration.api.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A page cursor that was not issued by this service, answered with 400 instead of a server error.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("Malformed cursor: " + cursor);
+    }
+
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Malformed cursor: " + cursor, cause);
+    }
+}
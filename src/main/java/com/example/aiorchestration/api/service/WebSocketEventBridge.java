@@ -0,0 +1,133 @@
+package com.example.aiorchestration.api.service;
+
+import com.example.aiorchestration.agent.event.AgentEvent;
+import com.example.aiorchestration.api.controller.WebSocketController;
+import com.example.aiorchestration.event.InProcessEventBus;
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Feeds agent and workflow events from the broker, or the in-process event bus, to WebSocket
+ * subscribers.
+ *
+ * Events are conflated per agent and per execution (per workflow for definition events): only the
+ * latest event of each key since the last flush is sent, so a burst of status changes costs one
+ * message per key and flush interval. The number of pending keys is bounded; new keys beyond the
+ * limit are dropped until the next flush.
+ */
+@Component
+@Slf4j
+public class WebSocketEventBridge {
+
+    private final WebSocketController webSocketController;
+    private final ObjectProvider<InProcessEventBus> eventBus;
+    private final int maxPendingKeys;
+
+    private final Map<String, AgentEvent> pendingAgentEvents = new ConcurrentHashMap<>();
+    private final Map<String, WorkflowEvent> pendingWorkflowEvents = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter conflatedCounter;
+    private final Counter droppedCounter;
+
+    public WebSocketEventBridge(WebSocketController webSocketController,
+                                ObjectProvider<InProcessEventBus> eventBus,
+                                MeterRegistry meterRegistry,
+                                @Value("${websocket.max-pending-keys:20000}") int maxPendingKeys) {
+        this.webSocketController = webSocketController;
+        this.eventBus = eventBus;
+        this.maxPendingKeys = maxPendingKeys;
+        Gauge.builder("websocket.events.pending", this,
+                        bridge -> bridge.pendingAgentEvents.size() + bridge.pendingWorkflowEvents.size())
+                .description("Conflated events waiting for the next flush")
+                .register(meterRegistry);
+        this.receivedCounter = meterRegistry.counter("websocket.events.received");
+        this.conflatedCounter = meterRegistry.counter("websocket.events.conflated");
+        this.droppedCounter = meterRegistry.counter("websocket.events.dropped");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventBus.ifAvailable(bus -> {
+            bus.subscribe(AgentEvent.class, this::onAgentEvent);
+            bus.subscribe(WorkflowEvent.class, this::onWorkflowEvent);
+        });
+    }
+
+    @RabbitListener(queues = "#{websocketAgentEventsQueue.name}", autoStartup = "#{'${events.publisher:batching}' != 'inprocess'}")
+    public void onAgentEvent(AgentEvent event) {
+        if (event.getAgentId() == null) {
+            return;
+        }
+        offer(pendingAgentEvents, event.getAgentId(), event, AgentEvent::getTimestamp);
+    }
+
+    @RabbitListener(queues = "#{websocketWorkflowEventsQueue.name}", autoStartup = "#{'${events.publisher:batching}' != 'inprocess'}")
+    public void onWorkflowEvent(WorkflowEvent event) {
+        String key = event.getExecutionId() != null ? event.getExecutionId() : event.getWorkflowId();
+        if (key == null) {
+            return;
+        }
+        offer(pendingWorkflowEvents, key, event, WorkflowEvent::getTimestamp);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.flush-interval-ms:250}")
+    public void flush() {
+        List<AgentEvent> agentEvents = drain(pendingAgentEvents);
+        if (!agentEvents.isEmpty()) {
+            agentEvents.forEach(webSocketController::handleAgentEvent);
+            webSocketController.broadcastAgentEvents(agentEvents);
+        }
+
+        List<WorkflowEvent> workflowEvents = drain(pendingWorkflowEvents);
+        if (!workflowEvents.isEmpty()) {
+            workflowEvents.forEach(webSocketController::handleWorkflowEvent);
+            webSocketController.broadcastWorkflowEvents(workflowEvents);
+        }
+    }
+
+    private <E> void offer(Map<String, E> pending, String key, E event, Function<E, LocalDateTime> timestampOf) {
+        receivedCounter.increment();
+        if (pending.size() >= maxPendingKeys && !pending.containsKey(key)) {
+            droppedCounter.increment();
+            log.debug("WebSocket event buffer full, dropped event for {}", key);
+            return;
+        }
+        pending.merge(key, event, (current, latest) -> {
+            conflatedCounter.increment();
+            // Redelivered or reordered events must not replace a newer one
+            LocalDateTime currentTimestamp = timestampOf.apply(current);
+            LocalDateTime latestTimestamp = timestampOf.apply(latest);
+            return currentTimestamp != null && latestTimestamp != null && latestTimestamp.isBefore(currentTimestamp)
+                    ? current
+                    : latest;
+        });
+    }
+
+    private <E> List<E> drain(Map<String, E> pending) {
+        List<E> events = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            E event = pending.remove(key);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.aiorchestration.config;
 
+import com.example.aiorchestration.metrics.QueueWaitTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -11,36 +16,54 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
     
+    @Value("${agent.health.concurrency:16}")
+    private int healthCheckConcurrency;
+    
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("Orchestrator-");
-        executor.initialize();
-        return executor;
+        return instrument(executor, "taskExecutor", meterRegistry);
     }
     
     @Bean(name = "agentExecutor")
-    public Executor agentExecutor() {
+    public Executor agentExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);
         executor.setMaxPoolSize(20);
         executor.setQueueCapacity(50);
         executor.setThreadNamePrefix("Agent-");
-        executor.initialize();
-        return executor;
+        return instrument(executor, "agentExecutor", meterRegistry);
     }
     
     @Bean(name = "workflowExecutor")
-    public Executor workflowExecutor() {
+    public Executor workflowExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(15);
         executor.setQueueCapacity(30);
         executor.setThreadNamePrefix("Workflow-");
+        return instrument(executor, "workflowExecutor", meterRegistry);
+    }
+    
+    // Fixed size bounds concurrent probes; the rest queue until a slot frees up
+    @Bean(name = "healthCheckExecutor")
+    public Executor healthCheckExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(healthCheckConcurrency);
+        executor.setMaxPoolSize(healthCheckConcurrency);
+        executor.setThreadNamePrefix("HealthCheck-");
+        return instrument(executor, "healthCheckExecutor", meterRegistry);
+    }
+    
+    // Queue depth and pool gauges, plus queue wait and run time for every task
+    private Executor instrument(ThreadPoolTaskExecutor executor, String name, MeterRegistry meterRegistry) {
+        executor.setTaskDecorator(new QueueWaitTaskDecorator(meterRegistry, name));
         executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), name, Tags.empty()).bindTo(meterRegistry);
         return executor;
     }
 }
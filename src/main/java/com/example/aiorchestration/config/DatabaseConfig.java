@@ -1,14 +1,20 @@
 package com.example.aiorchestration.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class DatabaseConfig {
@@ -22,6 +28,24 @@ public class DatabaseConfig {
     @Value("${spring.datasource.password:password}")
     private String dbPassword;
 
+    // Comma-separated JDBC URLs of read replicas, using the primary's credentials; empty for none
+    @Value("${database.replica-urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${database.pool.max-size:20}")
+    private int poolMaxSize;
+
+    @Value("${database.pool.min-idle:5}")
+    private int poolMinIdle;
+
+    @Value("${database.pool.connection-timeout-ms:2000}")
+    private long connectionTimeoutMs;
+
+    @Value("${database.pool.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
     @Bean
     @Profile("!cloud")
     public DataSource dataSource() {
@@ -30,13 +54,48 @@ public class DatabaseConfig {
                 .build();
     }
     
+    /**
+     * Pooled primary, plus pooled replicas for read-only transactions when replica URLs are set.
+     * The lazy proxy takes a physical connection only at the first statement, after the
+     * transaction has marked the connection read-only, and picks the pool from that flag.
+     * Pool usage, pending borrows and acquire times are exported as {@code hikaricp.*} metrics.
+     */
     @Bean
     @Profile("cloud")
-    public DataSource cloudDataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setUrl(dbUrl);
-        dataSource.setUsername(dbUsername);
-        dataSource.setPassword(dbPassword);
+    public DataSource cloudDataSource(MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(pool("primary", dbUrl, meterRegistry));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String replicaUrl : replicaUrls) {
+            if (!replicaUrl.isBlank()) {
+                replicas.add(pool("replica-" + replicas.size(), replicaUrl.trim(), meterRegistry));
+            }
+        }
+        if (!replicas.isEmpty()) {
+            dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(replicas));
+        }
         return dataSource;
     }
+
+    private HikariDataSource pool(String name, String url, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(dbUsername);
+        config.setPassword(dbPassword);
+        config.setMaximumPoolSize(poolMaxSize);
+        config.setMinimumIdle(poolMinIdle);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setMetricRegistry(meterRegistry);
+        HikariDataSource pool = new HikariDataSource(config);
+        pools.add(pool);
+        return pool;
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.aiorchestration.config;
+
+import com.example.aiorchestration.metrics.QueryCountGuard;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Installs the query-count guard both as Hibernate's statement inspector and around API requests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "persistence.query-guard.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryCountConfig implements WebMvcConfigurer {
+
+    private final QueryCountGuard queryCountGuard;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountGuard);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountGuard).addPathPatterns("/api/**");
+    }
+
+    // Only requests the interceptor started a count for are counted on the async thread
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(queryCountGuard);
+    }
+}
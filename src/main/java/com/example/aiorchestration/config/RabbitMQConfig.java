@@ -1,5 +1,10 @@
 package com.example.aiorchestration.config;
 
+import com.example.aiorchestration.event.EventMessageConverter;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -8,11 +13,18 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 
 @Configuration
 public class RabbitMQConfig {
 
+    public static final String AGENT_EVENTS_EXCHANGE = "agent-events";
+    public static final String AGENT_EVENTS_QUEUE = "agent-events";
+    public static final String WORKFLOW_EVENTS_EXCHANGE = "workflow-events";
+    public static final String WORKFLOW_EXECUTION_EVENTS_EXCHANGE = "workflow-execution-events";
+    public static final String WORKFLOW_EVENTS_QUEUE = "workflow-events";
+
     @Value("${spring.rabbitmq.host:localhost}")
     private String host;
     
@@ -25,19 +37,111 @@ public class RabbitMQConfig {
     @Value("${spring.rabbitmq.password:guest}")
     private String password;
     
+    // Wire format for agent and workflow events: json or binary
+    @Value("${events.serialization:json}")
+    private String serialization;
+    
+    // Durable queues keep every event for downstream consumers while no node is connected
     @Bean
     public Queue agentEventsQueue() {
-        return new Queue("agent-events", true);
+        return new Queue(AGENT_EVENTS_QUEUE, true);
+    }
+    
+    @Bean
+    public FanoutExchange agentEventsExchange() {
+        return new FanoutExchange(AGENT_EVENTS_EXCHANGE, true, false);
+    }
+    
+    @Bean
+    public Binding agentEventsBinding() {
+        return BindingBuilder.bind(agentEventsQueue()).to(agentEventsExchange());
+    }
+    
+    // Node-local queue so every instance sees every agent event, not just one consumer
+    @Bean
+    public Queue agentCatalogQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding agentCatalogBinding() {
+        return BindingBuilder.bind(agentCatalogQueue()).to(agentEventsExchange());
+    }
+    
+    // Node-local queues so every instance's WebSocket clients see the whole event stream
+    @Bean
+    public Queue websocketAgentEventsQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding websocketAgentEventsBinding() {
+        return BindingBuilder.bind(websocketAgentEventsQueue()).to(agentEventsExchange());
     }
     
     @Bean
     public Queue workflowEventsQueue() {
-        return new Queue("workflow-events", true);
+        return new Queue(WORKFLOW_EVENTS_QUEUE, true);
+    }
+    
+    // Definition changes; the catalog queues only bind here
+    @Bean
+    public FanoutExchange workflowEventsExchange() {
+        return new FanoutExchange(WORKFLOW_EVENTS_EXCHANGE, true, false);
+    }
+    
+    // Execution events, kept off the definition exchange so catalogs do not receive them
+    @Bean
+    public FanoutExchange workflowExecutionEventsExchange() {
+        return new FanoutExchange(WORKFLOW_EXECUTION_EVENTS_EXCHANGE, true, false);
+    }
+    
+    @Bean
+    public Binding workflowEventsBinding() {
+        return BindingBuilder.bind(workflowEventsQueue()).to(workflowEventsExchange());
+    }
+    
+    @Bean
+    public Binding workflowExecutionEventsBinding() {
+        return BindingBuilder.bind(workflowEventsQueue()).to(workflowExecutionEventsExchange());
+    }
+    
+    // Node-local queue so every instance evicts its cached definitions
+    @Bean
+    public Queue workflowCatalogQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding workflowCatalogBinding() {
+        return BindingBuilder.bind(workflowCatalogQueue()).to(workflowEventsExchange());
+    }
+    
+    @Bean
+    public Queue websocketWorkflowEventsQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding websocketWorkflowEventsBinding() {
+        return BindingBuilder.bind(websocketWorkflowEventsQueue()).to(workflowEventsExchange());
+    }
+    
+    @Bean
+    public Binding websocketWorkflowExecutionEventsBinding() {
+        return BindingBuilder.bind(websocketWorkflowEventsQueue()).to(workflowExecutionEventsExchange());
     }
     
     @Bean
     public Jackson2JsonMessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+        return new Jackson2JsonMessageConverter("com.example.aiorchestration");
+    }
+    
+    // Primary so listener containers decode both JSON and binary events
+    @Bean
+    @Primary
+    public EventMessageConverter eventMessageConverter() {
+        return new EventMessageConverter(jsonMessageConverter(), "binary".equalsIgnoreCase(serialization));
     }
     
     @Bean
@@ -48,13 +152,15 @@ public class RabbitMQConfig {
         connectionFactory.setPort(port);
         connectionFactory.setUsername(username);
         connectionFactory.setPassword(password);
+        // Lets the batching event publisher wait for broker confirms once per batch
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
         return connectionFactory;
     }
     
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(eventMessageConverter());
         return rabbitTemplate;
     }
 }
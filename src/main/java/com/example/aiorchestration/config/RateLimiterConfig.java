@@ -1,7 +1,11 @@
 package com.example.aiorchestration.config;
 
+import com.example.aiorchestration.agent.service.TokenRateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,6 +13,18 @@ import java.time.Duration;
 
 @Configuration
 public class RateLimiterConfig {
+
+    @Value("${agent.rate-limit.tokens-per-minute:90000}")
+    private long tokensPerMinute;
+
+    @Value("${agent.rate-limit.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Value("${agent.rate-limit.starvation-ms:5000}")
+    private long starvationMs;
+
+    @Value("${spring.ai.openai.chat.options.max-tokens:2000}")
+    private long completionReserve;
     
     @Bean
     public RateLimiterRegistry rateLimiterRegistry() {
@@ -30,4 +46,17 @@ public class RateLimiterConfig {
         
         return registry;
     }
+    
+    @Bean
+    public TokenCountEstimator tokenCountEstimator() {
+        // Local BPE tokenizer; no round trip to the provider
+        return new JTokkitTokenCountEstimator();
+    }
+    
+    @Bean
+    public TokenRateLimiter tokenRateLimiter(TokenCountEstimator tokenCountEstimator) {
+        // Calls are limited by count above; the provider quota itself is measured in tokens
+        return new TokenRateLimiter(tokensPerMinute, maxWaitMs, starvationMs, completionReserve,
+                tokenCountEstimator);
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.aiorchestration.config;
+
+import com.example.aiorchestration.loadtest.SimulatedChatModel;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("simulator")
+public class SimulatorConfig {
+
+    @Value("${simulator.latency.median-ms:800}")
+    private long medianLatencyMs;
+
+    @Value("${simulator.latency.p99-ms:4000}")
+    private long p99LatencyMs;
+
+    @Value("${simulator.error-rate:0.01}")
+    private double errorRate;
+
+    @Value("${simulator.rate-limit-rate:0.02}")
+    private double rateLimitRate;
+
+    @Value("${simulator.completion-tokens:200}")
+    private int completionTokens;
+
+    @Value("${simulator.stream.token-interval-ms:20}")
+    private long tokenIntervalMs;
+    
+    // Primary so the auto-configured ChatClient.Builder picks it over the OpenAI model
+    @Bean
+    @Primary
+    public SimulatedChatModel simulatedChatModel(TokenCountEstimator tokenCountEstimator) {
+        return new SimulatedChatModel(medianLatencyMs, p99LatencyMs, errorRate, rateLimitRate,
+                completionTokens, Duration.ofMillis(tokenIntervalMs), tokenCountEstimator);
+    }
+    
+    @Bean
+    public CacheManager cacheManager() {
+        return new ConcurrentMapCacheManager();
+    }
+}
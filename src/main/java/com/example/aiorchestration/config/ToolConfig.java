@@ -0,0 +1,59 @@
+package com.example.aiorchestration.config;
+
+import com.example.aiorchestration.utility.service.RiskScoringService;
+import com.example.aiorchestration.utility.service.ThresholdService;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tools agents can be granted by name. Results are cached briefly, so only read-only lookups
+ * belong here.
+ */
+@Configuration
+public class ToolConfig {
+    
+    @Bean
+    public ToolCallback calculateRiskScoreTool(RiskScoringService riskScoringService) {
+        return FunctionToolCallback.builder("calculateRiskScore", (RiskScoreInput input) -> {
+                    Map<String, Object> parameters = new HashMap<>();
+                    if (input.amount() != null) {
+                        parameters.put("amount", input.amount());
+                    }
+                    if (input.country() != null) {
+                        parameters.put("country", input.country());
+                    }
+                    if (input.customerAge() != null) {
+                        parameters.put("customerAge", input.customerAge());
+                    }
+                    if (input.newCustomer() != null) {
+                        parameters.put("newCustomer", input.newCustomer());
+                    }
+                    return Map.of("riskScore", riskScoringService.calculateRiskScore(parameters, "agent"));
+                })
+                .description("Calculate a 0-100 risk score for a transaction")
+                .inputType(RiskScoreInput.class)
+                .build();
+    }
+    
+    @Bean
+    public ToolCallback getThresholdTool(ThresholdService thresholdService) {
+        return FunctionToolCallback.builder("getThreshold", (ThresholdInput input) ->
+                        Map.of("threshold", thresholdService.getThreshold(
+                                input.context() != null ? input.context() : "default")))
+                .description("Get the risk score at or above which a transaction is flagged for review. "
+                        + "Contexts: default, high_value_transaction, new_customer, international_transfer")
+                .inputType(ThresholdInput.class)
+                .build();
+    }
+    
+    public record RiskScoreInput(Double amount, String country, Integer customerAge, Boolean newCustomer) {
+    }
+    
+    public record ThresholdInput(String context) {
+    }
+}
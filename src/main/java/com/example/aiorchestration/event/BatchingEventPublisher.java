@@ -0,0 +1,148 @@
+package com.example.aiorchestration.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers events in a bounded queue and publishes them from a background thread in batches, waiting
+ * for broker confirms once per batch instead of once per event.
+ *
+ * Callers never block: when the buffer is full the event is dropped and counted. A batch that is
+ * not confirmed is retried as a whole, so consumers may see an event more than once.
+ */
+@Component
+@ConditionalOnProperty(name = "events.publisher", havingValue = "batching", matchIfMissing = true)
+@Slf4j
+public class BatchingEventPublisher implements EventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<PendingEvent> buffer;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long confirmTimeoutMs;
+    private final int maxAttempts;
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    public BatchingEventPublisher(RabbitTemplate rabbitTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${events.publisher.buffer-size:10000}") int bufferSize,
+                                  @Value("${events.publisher.batch-size:100}") int batchSize,
+                                  @Value("${events.publisher.linger-ms:5}") long lingerMs,
+                                  @Value("${events.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                                  @Value("${events.publisher.max-attempts:3}") int maxAttempts) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxAttempts = maxAttempts;
+
+        meterRegistry.gaugeCollectionSize("events.publisher.buffered", List.of(), buffer);
+        this.publishedCounter = meterRegistry.counter("events.publisher.published");
+        this.droppedCounter = meterRegistry.counter("events.publisher.dropped");
+        this.failedCounter = meterRegistry.counter("events.publisher.failed");
+        this.batchTimer = Timer.builder("events.publisher.batch")
+                .description("Time to publish one batch and receive its confirms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(String exchange, String routingKey, Object event) {
+        if (!buffer.offer(new PendingEvent(exchange, routingKey, event))) {
+            droppedCounter.increment();
+            log.warn("Event buffer full, dropped {} for {}/{}", event.getClass().getSimpleName(), exchange, routingKey);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        publisherThread = new Thread(this::run, "EventPublisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        publisherThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        // Keep going after a stop request until the buffer is drained
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Give concurrent publishers a moment to fill the batch
+                if (lingerMs > 0 && buffer.size() < batchSize - 1) {
+                    Thread.sleep(lingerMs);
+                }
+                buffer.drainTo(batch, batchSize - 1);
+
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingEvent> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long startNanos = System.nanoTime();
+            try {
+                rabbitTemplate.invoke(operations -> {
+                    for (PendingEvent pending : batch) {
+                        operations.convertAndSend(pending.exchange(), pending.routingKey(), pending.event());
+                    }
+                    operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                    return null;
+                });
+                batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                publishedCounter.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                log.warn("Publishing a batch of {} events failed (attempt {}/{}): {}",
+                        batch.size(), attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts) {
+                    Thread.sleep(100L * attempt);
+                }
+            }
+        }
+
+        failedCounter.increment(batch.size());
+        log.error("Gave up publishing a batch of {} events after {} attempts", batch.size(), maxAttempts);
+    }
+
+    private record PendingEvent(String exchange, String routingKey, Object event) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.aiorchestration.event;
+
+import com.example.aiorchestration.agent.event.AgentEvent;
+import com.example.aiorchestration.agent.event.AgentEventType;
+import com.example.aiorchestration.agent.model.AgentStatus;
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import com.example.aiorchestration.workflow.event.WorkflowEventType;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link AgentEvent} and {@link WorkflowEvent}.
+ *
+ * Layout: schema version byte, event kind byte, then the event's fields in declaration order.
+ * Enums are written as ordinal + 1 (0 for null), so enum constants may only be appended; any other
+ * change needs a new schema version. Strings that are canonical UUIDs take 16 bytes, other strings
+ * are length-prefixed UTF-8. Timestamps are epoch seconds and nanos as varints.
+ */
+public final class BinaryEventCodec {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final byte KIND_AGENT = 1;
+    private static final byte KIND_WORKFLOW = 2;
+
+    private static final byte STRING_NULL = 0;
+    private static final byte STRING_UTF8 = 1;
+    private static final byte STRING_UUID = 2;
+
+    private static final AgentEventType[] AGENT_EVENT_TYPES = AgentEventType.values();
+    private static final AgentStatus[] AGENT_STATUSES = AgentStatus.values();
+    private static final WorkflowEventType[] WORKFLOW_EVENT_TYPES = WorkflowEventType.values();
+    private static final WorkflowExecutionStatus[] EXECUTION_STATUSES = WorkflowExecutionStatus.values();
+
+    private BinaryEventCodec() {
+    }
+
+    public static boolean supports(Object event) {
+        return event instanceof AgentEvent || event instanceof WorkflowEvent;
+    }
+
+    public static byte[] encode(Object event) {
+        Output out = new Output(128);
+        out.writeByte(SCHEMA_VERSION);
+        if (event instanceof AgentEvent agentEvent) {
+            out.writeByte(KIND_AGENT);
+            out.writeEnum(agentEvent.getType());
+            out.writeString(agentEvent.getAgentId());
+            out.writeString(agentEvent.getAgentName());
+            out.writeEnum(agentEvent.getStatus());
+            out.writeTimestamp(agentEvent.getTimestamp());
+        } else if (event instanceof WorkflowEvent workflowEvent) {
+            out.writeByte(KIND_WORKFLOW);
+            out.writeEnum(workflowEvent.getType());
+            out.writeString(workflowEvent.getWorkflowId());
+            out.writeString(workflowEvent.getWorkflowName());
+            out.writeString(workflowEvent.getExecutionId());
+            out.writeEnum(workflowEvent.getStatus());
+            out.writeString(workflowEvent.getStepId());
+            out.writeString(workflowEvent.getStepName());
+            out.writeTimestamp(workflowEvent.getTimestamp());
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public static Object decode(byte[] bytes) {
+        Input in = new Input(bytes);
+        int version = in.readByte();
+        if (version != SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported event schema version: " + version);
+        }
+
+        int kind = in.readByte();
+        return switch (kind) {
+            case KIND_AGENT -> AgentEvent.builder()
+                    .type(in.readEnum(AGENT_EVENT_TYPES))
+                    .agentId(in.readString())
+                    .agentName(in.readString())
+                    .status(in.readEnum(AGENT_STATUSES))
+                    .timestamp(in.readTimestamp())
+                    .build();
+            case KIND_WORKFLOW -> WorkflowEvent.builder()
+                    .type(in.readEnum(WORKFLOW_EVENT_TYPES))
+                    .workflowId(in.readString())
+                    .workflowName(in.readString())
+                    .executionId(in.readString())
+                    .status(in.readEnum(EXECUTION_STATUSES))
+                    .stepId(in.readString())
+                    .stepName(in.readString())
+                    .timestamp(in.readTimestamp())
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown event kind: " + kind);
+        };
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int position;
+
+        private Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeEnum(Enum<?> value) {
+            writeByte(value == null ? 0 : value.ordinal() + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeByte(STRING_NULL);
+                return;
+            }
+            if (isCanonicalUuid(value)) {
+                UUID uuid = UUID.fromString(value);
+                writeByte(STRING_UUID);
+                writeLong(uuid.getMostSignificantBits());
+                writeLong(uuid.getLeastSignificantBits());
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeByte(STRING_UTF8);
+            writeVarLong(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, buffer, position, utf8.length);
+            position += utf8.length;
+        }
+
+        void writeTimestamp(LocalDateTime value) {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            writeByte(1);
+            long seconds = value.toEpochSecond(ZoneOffset.UTC);
+            // Zig-zag so that dates before 1970 stay short as well
+            writeVarLong((seconds << 1) ^ (seconds >> 63));
+            writeVarLong(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        // Only lower-case canonical UUIDs, so decoding reproduces the original string exactly
+        private static boolean isCanonicalUuid(String value) {
+            if (value.length() != 36) {
+                return false;
+            }
+            for (int i = 0; i < 36; i++) {
+                char c = value.charAt(i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (c != '-') {
+                        return false;
+                    }
+                } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        private Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated event payload");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in event payload");
+        }
+
+        <E extends Enum<E>> E readEnum(E[] values) {
+            int code = readByte();
+            if (code == 0) {
+                return null;
+            }
+            if (code > values.length) {
+                throw new IllegalArgumentException("Unknown enum ordinal " + (code - 1) + " for "
+                        + values.getClass().getComponentType().getSimpleName());
+            }
+            return values[code - 1];
+        }
+
+        String readString() {
+            int tag = readByte();
+            switch (tag) {
+                case STRING_NULL:
+                    return null;
+                case STRING_UUID:
+                    return new UUID(readLong(), readLong()).toString();
+                case STRING_UTF8:
+                    int length = (int) readVarLong();
+                    if (length < 0 || position + length > buffer.length) {
+                        throw new IllegalArgumentException("Truncated event payload");
+                    }
+                    String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                    return value;
+                default:
+                    throw new IllegalArgumentException("Unknown string tag: " + tag);
+            }
+        }
+
+        LocalDateTime readTimestamp() {
+            if (readByte() == 0) {
+                return null;
+            }
+            long zigzag = readVarLong();
+            long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+            int nanos = (int) readVarLong();
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+    }
+}
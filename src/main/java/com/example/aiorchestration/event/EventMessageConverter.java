@@ -0,0 +1,62 @@
+package com.example.aiorchestration.event;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Chooses the wire format of outgoing events and decodes incoming ones by their content type.
+ *
+ * With binary serialization enabled, agent and workflow events are sent with
+ * {@link BinaryEventCodec}; everything else, and every event when it is disabled, goes through the
+ * JSON converter. Consumers accept both formats, so producers can switch without a coordinated
+ * rollout.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    public static final String BINARY_CONTENT_TYPE = "application/x-aio-event";
+    public static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+    public static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private final MessageConverter jsonConverter;
+    private final boolean binary;
+
+    public EventMessageConverter(MessageConverter jsonConverter, boolean binary) {
+        this.jsonConverter = jsonConverter;
+        this.binary = binary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!binary || !BinaryEventCodec.supports(object)) {
+            return jsonConverter.toMessage(object, messageProperties);
+        }
+        byte[] body = BinaryEventCodec.encode(object);
+        applyBinaryProperties(messageProperties, body);
+        messageProperties.setHeader(TYPE_ID_HEADER, object.getClass().getName());
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (!BINARY_CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return jsonConverter.fromMessage(message);
+        }
+        try {
+            return BinaryEventCodec.decode(message.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException("Cannot decode binary event: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets the content type and schema version header of an already encoded binary event.
+     */
+    public static void applyBinaryProperties(MessageProperties messageProperties, byte[] body) {
+        messageProperties.setContentType(BINARY_CONTENT_TYPE);
+        // The version is also the first byte of the body; the header lets consumers route on it
+        messageProperties.setHeader(SCHEMA_VERSION_HEADER, body.length > 0 ? body[0] & 0xFF : 0);
+    }
+}
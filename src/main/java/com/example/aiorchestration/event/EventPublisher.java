@@ -0,0 +1,14 @@
+package com.example.aiorchestration.event;
+
+/**
+ * Publishes agent and workflow events to the message broker.
+ */
+public interface EventPublisher {
+
+    /**
+     * @param exchange   Exchange to publish to; empty for the default exchange
+     * @param routingKey Routing key, or the queue name when using the default exchange
+     * @param event      Event payload, converted with the configured message converter
+     */
+    void publish(String exchange, String routingKey, Object event);
+}
@@ -0,0 +1,204 @@
+package com.example.aiorchestration.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Delivers events to subscribers in this JVM instead of through RabbitMQ, for development and
+ * single-node deployments.
+ *
+ * Publishers claim a sequence number and write the event into a preallocated ring buffer slot; no
+ * per-event objects are allocated. One dispatcher thread hands every published batch to the
+ * subscribers in publish order and releases the whole batch at once. When the buffer is full,
+ * publishers wait up to {@code events.bus.publish-timeout-ms} and then drop the event.
+ */
+@Component
+@ConditionalOnProperty(name = "events.publisher", havingValue = "inprocess")
+@Slf4j
+public class InProcessEventBus implements EventPublisher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final long publishTimeoutNanos;
+
+    // Last sequence claimed by a publisher and last sequence handed to subscribers
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong dispatched = new AtomicLong(-1);
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    private volatile boolean running;
+    private volatile boolean dispatcherParked;
+    private Thread dispatcherThread;
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final DistributionSummary batchSize;
+
+    public InProcessEventBus(MeterRegistry meterRegistry,
+                             @Value("${events.bus.buffer-size:8192}") int bufferSize,
+                             @Value("${events.bus.publish-timeout-ms:100}") long publishTimeoutMs) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(publishTimeoutMs);
+
+        Gauge.builder("events.bus.backlog", this, bus -> bus.claimed.get() - bus.dispatched.get())
+                .description("Events published but not yet handed to subscribers")
+                .register(meterRegistry);
+        this.publishedCounter = meterRegistry.counter("events.bus.published");
+        this.droppedCounter = meterRegistry.counter("events.bus.dropped");
+        this.batchSize = DistributionSummary.builder("events.bus.batch.size")
+                .description("Events handed to subscribers per dispatch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a handler for events of the given type. Handlers run on the dispatcher thread and
+     * should not block for long.
+     */
+    public synchronized <T> void subscribe(Class<T> type, Consumer<? super T> handler) {
+        Subscription[] updated = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        updated[subscriptions.length] = new Subscription(type, event -> handler.accept(type.cast(event)));
+        subscriptions = updated;
+    }
+
+    @Override
+    public void publish(String exchange, String routingKey, Object event) {
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedCounter.increment();
+            log.warn("Event bus full, dropped {} for {}/{}", event.getClass().getSimpleName(), exchange, routingKey);
+            return;
+        }
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.exchange = exchange;
+        slot.routingKey = routingKey;
+        slot.event = event;
+        // The volatile write publishes the fields above to the dispatcher
+        slot.sequence = sequence;
+        publishedCounter.increment();
+
+        if (dispatcherParked) {
+            LockSupport.unpark(dispatcherThread);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcherThread = new Thread(this::run, "EventBus");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(dispatcherThread);
+        dispatcherThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * @return The claimed sequence, or -1 when the buffer stayed full for the publish timeout
+     */
+    private long claim() {
+        long deadline = 0;
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - dispatched.get() > slots.length) {
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + publishTimeoutNanos;
+                } else if (now - deadline > 0) {
+                    return -1;
+                }
+                LockSupport.parkNanos(1_000);
+                continue;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void run() {
+        long next = dispatched.get() + 1;
+        // Keep going after a stop request until every claimed event is dispatched
+        while (running || next <= claimed.get()) {
+            long available = next - 1;
+            while (available - next + 1 < slots.length && slots[(int) ((available + 1) & mask)].sequence == available + 1) {
+                available++;
+            }
+
+            if (available < next) {
+                if (!running) {
+                    // A claimed slot that is never written (its publisher died) must not hang shutdown
+                    return;
+                }
+                dispatcherParked = true;
+                if (slots[(int) (next & mask)].sequence != next) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                dispatcherParked = false;
+                continue;
+            }
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                dispatch(slots[(int) (sequence & mask)]);
+            }
+            batchSize.record(available - next + 1);
+            dispatched.set(available);
+            next = available + 1;
+        }
+    }
+
+    private void dispatch(Slot slot) {
+        Object event = slot.event;
+        Subscription[] current = subscriptions;
+        for (Subscription subscription : current) {
+            if (subscription.type.isInstance(event)) {
+                try {
+                    subscription.handler.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Subscriber failed on {} from {}/{}: {}", event.getClass().getSimpleName(),
+                            slot.exchange, slot.routingKey, e.getMessage());
+                }
+            }
+        }
+        // Release the references so dispatched events can be collected before the slot is reused
+        slot.exchange = null;
+        slot.routingKey = null;
+        slot.event = null;
+    }
+
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private String exchange;
+        private String routingKey;
+        private Object event;
+    }
+
+    private record Subscription(Class<?> type, Consumer<Object> handler) {
+    }
+}
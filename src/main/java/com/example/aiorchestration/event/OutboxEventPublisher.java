@@ -0,0 +1,39 @@
+package com.example.aiorchestration.event;
+
+import com.example.aiorchestration.event.model.OutboxEvent;
+import com.example.aiorchestration.event.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes events to the outbox table in the caller's transaction, so an event exists exactly when
+ * the change it describes was committed. Events are stored already serialized, in the format the
+ * message converter chose, and {@link OutboxRelay} delivers them to the broker.
+ */
+@Component
+@ConditionalOnProperty(name = "events.publisher", havingValue = "outbox")
+@RequiredArgsConstructor
+public class OutboxEventPublisher implements EventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+
+    // Joins the caller's transaction; callers without one get a transaction for the insert alone
+    @Override
+    @Transactional
+    public void publish(String exchange, String routingKey, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .payloadType(event.getClass().getName())
+                .contentType(message.getMessageProperties().getContentType())
+                .body(message.getBody())
+                .build());
+    }
+}
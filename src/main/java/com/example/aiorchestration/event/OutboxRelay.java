@@ -0,0 +1,115 @@
+package com.example.aiorchestration.event;
+
+import com.example.aiorchestration.event.model.OutboxEvent;
+import com.example.aiorchestration.event.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table to the broker in id order.
+ *
+ * Each pass walks the table with keyset pages, sends a page on one channel, waits for the broker's
+ * confirms once, and then deletes the page. A failed page stops the pass so nothing is sent out of
+ * order; it is retried on the next pass. Delivery is at least once. Only one node should run the
+ * relay ({@code events.outbox.relay-enabled}), which is what keeps per-execution order intact.
+ */
+@Component
+@ConditionalOnExpression("'${events.publisher:batching}' == 'outbox' and ${events.outbox.relay-enabled:true}")
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    private final Counter relayedCounter;
+    private final Counter failedBatchCounter;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${events.outbox.batch-size:200}") int batchSize,
+                       @Value("${events.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.relayedCounter = meterRegistry.counter("events.outbox.relayed");
+        this.failedBatchCounter = meterRegistry.counter("events.outbox.failed-batches");
+        this.batchTimer = Timer.builder("events.outbox.batch")
+                .description("Time to send one outbox page and receive its confirms")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${events.outbox.poll-interval-ms:200}")
+    public void relay() {
+        // Each pass restarts at the beginning: a transaction that committed after a later id was
+        // relayed is picked up on the next pass instead of being skipped
+        long afterId = 0;
+        while (true) {
+            List<OutboxEvent> page = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+            if (page.isEmpty()) {
+                return;
+            }
+
+            if (!send(page)) {
+                return;
+            }
+            outboxEventRepository.deleteByIds(page.stream().map(OutboxEvent::getId).toList());
+            relayedCounter.increment(page.size());
+
+            if (page.size() < batchSize) {
+                return;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private boolean send(List<OutboxEvent> page) {
+        long startNanos = System.nanoTime();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxEvent event : page) {
+                    operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+            batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (Exception e) {
+            failedBatchCounter.increment();
+            log.warn("Relaying {} outbox events failed, will retry: {}", page.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    // The body is already serialized; send it as is with the headers the converters expect
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        if (EventMessageConverter.BINARY_CONTENT_TYPE.equals(event.getContentType())) {
+            EventMessageConverter.applyBinaryProperties(properties, event.getBody());
+        } else {
+            properties.setContentType(event.getContentType());
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        properties.setHeader(EventMessageConverter.TYPE_ID_HEADER, event.getPayloadType());
+        return new Message(event.getBody(), properties);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.aiorchestration.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends each event synchronously on the caller's thread.
+ */
+@Component
+@ConditionalOnProperty(name = "events.publisher", havingValue = "sync")
+@RequiredArgsConstructor
+public class RabbitEventPublisher implements EventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Override
+    public void publish(String exchange, String routingKey, Object event) {
+        rabbitTemplate.convertAndSend(exchange, routingKey, event);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.aiorchestration.event.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event written in the same transaction as the change it describes, waiting to be relayed to the
+ * broker. Ids increase in insertion order, which is the order events are relayed in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String exchange;
+    
+    @Column(nullable = false)
+    private String routingKey;
+    
+    // Class name of the payload, sent as the type id header for consumers
+    @Column(nullable = false)
+    private String payloadType;
+    
+    // Content type of the serialized event, JSON or the binary event format
+    @Column(nullable = false)
+    private String contentType;
+    
+    // Maps to varbinary on H2 and bytea on PostgreSQL
+    @Column(nullable = false, length = 65536)
+    private byte[] body;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
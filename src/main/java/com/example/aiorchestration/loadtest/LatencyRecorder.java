@@ -0,0 +1,42 @@
+package com.example.aiorchestration.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in a growable primitive array and reports percentiles.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public synchronized void record(long millis) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = millis;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return The sample at that percentile, or 0 when nothing was recorded
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public String summary() {
+        return String.format("n=%d p50=%dms p95=%dms p99=%dms max=%dms",
+                count(), percentile(50), percentile(95), percentile(99), percentile(100));
+    }
+}
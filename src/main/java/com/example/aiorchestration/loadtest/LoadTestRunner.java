@@ -0,0 +1,246 @@
+package com.example.aiorchestration.loadtest;
+
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+import com.example.aiorchestration.workflow.repository.WorkflowExecutionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the REST API of this instance at a target rate and reports throughput, latency
+ * percentiles and database statement counts. Run it together with the simulator profile:
+ * {@code --spring.profiles.active=simulator,loadtest}.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final String CAPABILITY = "loadtest";
+
+    private final Environment environment;
+    private final WebClient.Builder webClientBuilder;
+    private final WorkflowExecutionRepository workflowExecutionRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${loadtest.target-rate:10}")
+    private double targetRate;
+
+    @Value("${loadtest.duration-seconds:60}")
+    private long durationSeconds;
+
+    @Value("${loadtest.drain-seconds:60}")
+    private long drainSeconds;
+
+    @Value("${loadtest.agents:4}")
+    private int agentCount;
+
+    @Value("${loadtest.workflow-steps:3}")
+    private int workflowSteps;
+
+    // Every Nth tick also calls an agent directly to sample single-step latency; 0 disables
+    @Value("${loadtest.agent-call-every:5}")
+    private int agentCallEvery;
+
+    @Value("${loadtest.username:user}")
+    private String username;
+
+    @Value("${loadtest.password:password}")
+    private String password;
+
+    @Value("${loadtest.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port", "8080");
+        WebClient client = webClientBuilder
+                .baseUrl(baseUrl)
+                .defaultHeaders(headers -> headers.setBasicAuth(username, password))
+                .build();
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> agentIds = registerAgents(client, runId);
+        String workflowId = createWorkflow(client, runId);
+        log.info("Load test {} against {}: {} executions/s for {}s, {} agents, {} steps per workflow",
+                runId, baseUrl, targetRate, durationSeconds, agentCount, workflowSteps);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        LatencyRecorder submitLatency = new LatencyRecorder();
+        LatencyRecorder agentCallLatency = new LatencyRecorder();
+        AtomicLong submitted = new AtomicLong();
+        AtomicLong submitErrors = new AtomicLong();
+        AtomicLong ticks = new AtomicLong();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetRate);
+        long startNanos = System.nanoTime();
+        scheduler.scheduleAtFixedRate(() -> {
+            long tick = ticks.incrementAndGet();
+            submitExecution(client, workflowId, submitted, submitErrors, submitLatency);
+            if (agentCallEvery > 0 && tick % agentCallEvery == 0) {
+                callAgent(client, agentIds.get((int) (tick % agentIds.size())), agentCallLatency);
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        scheduler.shutdownNow();
+        long loadNanos = System.nanoTime() - startNanos;
+
+        List<WorkflowExecution> executions = awaitExecutions(workflowId, submitted.get());
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        report(executions, loadNanos, submitted.get(), submitErrors.get(), submitLatency, agentCallLatency, statements);
+
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private List<String> registerAgents(WebClient client, String runId) {
+        List<String> agentIds = new ArrayList<>();
+        for (int i = 0; i < agentCount; i++) {
+            Map<String, Object> request = new HashMap<>();
+            request.put("name", "loadtest-" + runId + "-" + i);
+            request.put("description", "Load test agent");
+            request.put("type", "loadtest");
+            request.put("capability", CAPABILITY);
+            agentIds.add(idOf(client.post().uri("/api/agents").bodyValue(request)
+                    .retrieve().bodyToMono(Map.class).block()));
+        }
+        return agentIds;
+    }
+
+    private String createWorkflow(WebClient client, String runId) {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (int i = 1; i <= workflowSteps; i++) {
+            Map<String, Object> step = new HashMap<>();
+            step.put("name", "step-" + i);
+            step.put("sequence", i);
+            step.put("type", "AGENT_EXECUTION");
+            step.put("capability", CAPABILITY);
+            step.put("prompt", i == 1
+                    ? "Review the request {{inputs.requestId}}."
+                    : "Continue from the previous step: {{steps.step-" + (i - 1) + "}}");
+            step.put("required", true);
+            steps.add(step);
+        }
+
+        Map<String, Object> workflow = new HashMap<>();
+        workflow.put("name", "loadtest-" + runId);
+        workflow.put("type", "loadtest");
+        workflow.put("steps", steps);
+        return idOf(client.post().uri("/api/workflows").bodyValue(workflow)
+                .retrieve().bodyToMono(Map.class).block());
+    }
+
+    private void submitExecution(WebClient client, String workflowId, AtomicLong submitted,
+                                 AtomicLong submitErrors, LatencyRecorder submitLatency) {
+        long start = System.nanoTime();
+        client.post().uri("/api/workflows/{id}/execute", workflowId)
+                .bodyValue(Map.of("requestId", Long.toString(submitted.get())))
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(
+                        response -> {
+                            submitted.incrementAndGet();
+                            submitLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        },
+                        error -> {
+                            submitErrors.incrementAndGet();
+                            log.debug("Execution submit failed: {}", error.getMessage());
+                        });
+    }
+
+    private void callAgent(WebClient client, String agentId, LatencyRecorder agentCallLatency) {
+        long start = System.nanoTime();
+        client.post().uri("/api/agents/{id}/execute", agentId)
+                .bodyValue(Map.of("prompt", "Classify this load test request."))
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(
+                        response -> agentCallLatency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)),
+                        error -> log.debug("Agent call failed: {}", error.getMessage()));
+    }
+
+    private List<WorkflowExecution> awaitExecutions(String workflowId, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainSeconds);
+        List<WorkflowExecution> executions = workflowExecutionRepository.findByWorkflowId(workflowId);
+        while (System.nanoTime() < deadline && countFinished(executions) < expected) {
+            Thread.sleep(1000);
+            executions = workflowExecutionRepository.findByWorkflowId(workflowId);
+        }
+        return executions;
+    }
+
+    private long countFinished(List<WorkflowExecution> executions) {
+        return executions.stream().filter(execution -> execution.getEndTime() != null).count();
+    }
+
+    private void report(List<WorkflowExecution> executions, long loadNanos, long submitted, long submitErrors,
+                        LatencyRecorder submitLatency, LatencyRecorder agentCallLatency, long statements) {
+        LatencyRecorder executionLatency = new LatencyRecorder();
+        LatencyRecorder stepLatency = new LatencyRecorder();
+        long completed = 0;
+        long failed = 0;
+        for (WorkflowExecution execution : executions) {
+            if (execution.getEndTime() == null || execution.getStartTime() == null) {
+                continue;
+            }
+            long millis = Duration.between(execution.getStartTime(), execution.getEndTime()).toMillis();
+            if (execution.getStatus() == WorkflowExecutionStatus.COMPLETED) {
+                completed++;
+                executionLatency.record(millis);
+                stepLatency.record(millis / Math.max(1, workflowSteps));
+            } else {
+                failed++;
+            }
+        }
+
+        double seconds = loadNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        log.info("==== Load test report ====");
+        log.info("Submitted: {} ({} submit errors), completed: {}, failed: {}, unfinished: {}",
+                submitted, submitErrors, completed, failed, executions.size() - completed - failed);
+        log.info("Throughput: {} executions/s", String.format("%.2f", completed / seconds));
+        log.info("Submit latency: {}", submitLatency.summary());
+        log.info("Execution latency: {}", executionLatency.summary());
+        log.info("Mean step latency per execution: {}", stepLatency.summary());
+        log.info("Direct agent call latency: {}", agentCallLatency.summary());
+        log.info("DB statements: {} total, {} per submitted execution", statements,
+                String.format("%.1f", statements / (double) Math.max(1, submitted)));
+    }
+
+    private String idOf(Map<?, ?> body) {
+        if (body == null || body.get("id") == null) {
+            throw new IllegalStateException("Load test setup call returned no id");
+        }
+        return body.get("id").toString();
+    }
+}
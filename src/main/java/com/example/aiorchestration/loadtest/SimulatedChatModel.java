@@ -0,0 +1,144 @@
+package com.example.aiorchestration.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline stand-in for the provider's chat model, used for load testing without paying for calls.
+ *
+ * Latency follows a log-normal distribution fitted to the configured median and p99. A share of
+ * calls fail, and another share is rejected the way the provider rejects calls over quota (429).
+ */
+@Slf4j
+public class SimulatedChatModel implements ChatModel {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private static final String[] WORDS = {
+            "the", "agent", "reviewed", "input", "and", "found", "no", "issues", "with", "request",
+            "result", "is", "consistent", "step", "workflow", "data", "approved", "risk", "low", "summary"
+    };
+
+    private final double medianMs;
+    private final double sigma;
+    private final double errorRate;
+    private final double rateLimitRate;
+    private final int completionTokens;
+    private final Duration tokenInterval;
+    private final TokenCountEstimator tokenCountEstimator;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    public SimulatedChatModel(long medianMs,
+                              long p99Ms,
+                              double errorRate,
+                              double rateLimitRate,
+                              int completionTokens,
+                              Duration tokenInterval,
+                              TokenCountEstimator tokenCountEstimator) {
+        this.medianMs = Math.max(1, medianMs);
+        this.sigma = Math.log(Math.max(p99Ms, this.medianMs) / this.medianMs) / Z_99;
+        this.errorRate = errorRate;
+        this.rateLimitRate = rateLimitRate;
+        this.completionTokens = completionTokens;
+        this.tokenInterval = tokenInterval;
+        this.tokenCountEstimator = tokenCountEstimator;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        sleep(sampleLatencyMs());
+        failIfUnlucky();
+
+        String text = generateText(completionTokens);
+        return response(text, tokenCountEstimator.estimate(prompt.getContents()), completionTokens);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        calls.incrementAndGet();
+        // Time to first token takes the sampled latency; the rest arrive at the token interval
+        return Mono.delay(Duration.ofMillis(sampleLatencyMs()))
+                .doOnNext(tick -> failIfUnlucky())
+                .thenMany(Flux.range(0, completionTokens)
+                        .delayElements(tokenInterval)
+                        .map(i -> response(WORDS[i % WORDS.length] + " ", 0, 1)));
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    private long sampleLatencyMs() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianMs * Math.exp(sigma * gaussian));
+    }
+
+    private void failIfUnlucky() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            rateLimited.incrementAndGet();
+            throw new TransientAiException("429 - Rate limit reached for requests (simulated)");
+        }
+        if (roll < rateLimitRate + errorRate) {
+            failures.incrementAndGet();
+            throw new TransientAiException("500 - Simulated model failure");
+        }
+    }
+
+    private ChatResponse response(String text, int promptTokens, int generatedTokens) {
+        ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .model("simulator")
+                .usage(new DefaultUsage(promptTokens, generatedTokens))
+                .build();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata);
+    }
+
+    private String generateText(int tokens) {
+        StringBuilder text = new StringBuilder(tokens * 8);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < tokens; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during simulated model call", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.aiorchestration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for agent calls and workflow execution.
+ *
+ * Agent names, models and workflow types come from user data, so each tag keeps at most
+ * {@code metrics.tag-value-limit} distinct values; later values are reported as "other". Only
+ * timers without a per-agent tag publish percentile histograms, since each tag combination of a
+ * histogram costs dozens of series.
+ */
+@Component
+public class OrchestrationMetrics {
+
+    public static final String OTHER = "other";
+    public static final String UNKNOWN = "unknown";
+
+    private final Meter.MeterProvider<Timer> agentCallTimer;
+    private final Meter.MeterProvider<Counter> agentCallCounter;
+    private final Meter.MeterProvider<Counter> agentTokenCounter;
+    private final Meter.MeterProvider<Timer> stepTimer;
+    private final Meter.MeterProvider<Timer> workflowTimer;
+
+    private final BoundedTagValues agentNames;
+    private final BoundedTagValues models;
+    private final BoundedTagValues workflowTypes;
+    private final String defaultModel;
+
+    public OrchestrationMetrics(MeterRegistry meterRegistry,
+                                @Value("${metrics.tag-value-limit:100}") int tagValueLimit,
+                                @Value("${spring.ai.openai.chat.options.model:unknown}") String defaultModel) {
+        this.agentCallTimer = Timer.builder("agent.call")
+                .description("Agent call latency per model, including any wait for token budget")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.agentCallCounter = Counter.builder("agent.calls")
+                .description("Agent calls per agent and outcome")
+                .withRegistry(meterRegistry);
+        this.agentTokenCounter = Counter.builder("agent.tokens")
+                .description("Tokens reported by the model provider")
+                .withRegistry(meterRegistry);
+        this.stepTimer = Timer.builder("workflow.step")
+                .description("Workflow step duration, excluding the steps that follow it")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.workflowTimer = Timer.builder("workflow.execution")
+                .description("Workflow execution duration from start to a terminal status")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+
+        this.agentNames = new BoundedTagValues(tagValueLimit);
+        this.models = new BoundedTagValues(tagValueLimit);
+        this.workflowTypes = new BoundedTagValues(tagValueLimit);
+        this.defaultModel = defaultModel;
+    }
+
+    /**
+     * @param model The model that served the call, or null when the call failed before the provider
+     *              reported one; the configured default model is used then
+     */
+    public void recordAgentCall(String agentName, String model, boolean success, long durationNanos) {
+        agentCallTimer.withTags(Tags.of(
+                        "model", models.bound(model != null ? model : defaultModel),
+                        "outcome", outcome(success)))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        agentCallCounter.withTags(Tags.of("agent", agentNames.bound(agentName), "outcome", outcome(success)))
+                .increment();
+    }
+
+    public void recordTokens(String agentName, String model, Number promptTokens, Number completionTokens) {
+        String agent = agentNames.bound(agentName);
+        String boundModel = models.bound(model != null ? model : defaultModel);
+        if (promptTokens != null) {
+            agentTokenCounter.withTags(Tags.of("agent", agent, "model", boundModel, "type", "prompt"))
+                    .increment(promptTokens.doubleValue());
+        }
+        if (completionTokens != null) {
+            agentTokenCounter.withTags(Tags.of("agent", agent, "model", boundModel, "type", "completion"))
+                    .increment(completionTokens.doubleValue());
+        }
+    }
+
+    public void recordStep(String stepType, boolean success, long durationNanos) {
+        stepTimer.withTags(Tags.of("type", stepType, "outcome", outcome(success)))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWorkflow(String workflowType, String status, long durationMillis) {
+        workflowTimer.withTags(Tags.of("type", workflowTypes.bound(workflowType), "status", status))
+                .record(durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private String outcome(boolean success) {
+        return success ? "success" : "error";
+    }
+
+    private static final class BoundedTagValues {
+        private final int limit;
+        private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+        private BoundedTagValues(int limit) {
+            this.limit = limit;
+        }
+
+        String bound(String value) {
+            if (value == null || value.isBlank()) {
+                return UNKNOWN;
+            }
+            if (values.contains(value)) {
+                return value;
+            }
+            // Racing threads may overshoot the limit by a few values, which is harmless
+            if (values.size() < limit) {
+                values.add(value);
+                return value;
+            }
+            return OTHER;
+        }
+    }
+}
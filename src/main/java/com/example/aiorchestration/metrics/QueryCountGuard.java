@@ -0,0 +1,127 @@
+package com.example.aiorchestration.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements each API request issues, so an N+1 regression on a list or detail
+ * endpoint shows up as soon as it is introduced.
+ *
+ * Every request records its count in {@code db.statements.per.request}, tagged by handler, and logs a
+ * warning past the budget. With {@code persistence.query-guard.fail-on-violation} the statement that
+ * exceeds the budget fails instead, which is how development and CI runs assert the budget.
+ *
+ * The count travels with the request as an attribute, so an async or streaming request adds up the
+ * statements of its dispatching thread, the thread that produces the body and the async dispatch,
+ * and records them once when the request completes.
+ */
+@Component
+@ConditionalOnProperty(name = "persistence.query-guard.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class QueryCountGuard implements StatementInspector, AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String COUNT_ATTRIBUTE = QueryCountGuard.class.getName() + ".count";
+
+    private static final ThreadLocal<AtomicInteger> STATEMENTS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final boolean failOnViolation;
+
+    public QueryCountGuard(MeterRegistry meterRegistry,
+                           @Value("${persistence.query-guard.max-statements:10}") int maxStatements,
+                           @Value("${persistence.query-guard.fail-on-violation:false}") boolean failOnViolation) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = STATEMENTS.get();
+        // Statements outside a request (schedulers, listeners) are not counted
+        if (count != null && count.incrementAndGet() > maxStatements && failOnViolation) {
+            throw new IllegalStateException("Request exceeded its budget of " + maxStatements
+                    + " SQL statements: " + sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch continues the count started by the original dispatch
+        Object count = request.getAttribute(COUNT_ATTRIBUTE);
+        if (request.getDispatcherType() != DispatcherType.ASYNC || !(count instanceof AtomicInteger)) {
+            count = new AtomicInteger();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        STATEMENTS.set((AtomicInteger) count);
+        return true;
+    }
+
+    // The request goes on in another thread and is recorded when its async dispatch completes
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        STATEMENTS.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        STATEMENTS.remove();
+        if (request.getAttribute(COUNT_ATTRIBUTE) instanceof AtomicInteger count) {
+            request.removeAttribute(COUNT_ATTRIBUTE);
+            record(request, handler, count.get());
+        }
+    }
+
+    // Callables and streaming bodies run on an async executor thread
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AtomicInteger count) {
+            STATEMENTS.set(count);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        STATEMENTS.remove();
+    }
+
+    private void record(HttpServletRequest request, Object handler, int statements) {
+        String handlerName = handlerName(handler);
+        DistributionSummary.builder("db.statements.per.request")
+                .description("SQL statements issued while handling one API request")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > maxStatements) {
+            log.warn("{} {} issued {} SQL statements (budget {})",
+                    request.getMethod(), request.getRequestURI(), statements, maxStatements);
+        }
+    }
+
+    private String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "other";
+    }
+}
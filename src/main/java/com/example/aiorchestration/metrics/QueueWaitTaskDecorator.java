@@ -0,0 +1,43 @@
+package com.example.aiorchestration.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long tasks wait in an executor's queue and how long they then run.
+ */
+public class QueueWaitTaskDecorator implements TaskDecorator {
+
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    public QueueWaitTaskDecorator(MeterRegistry meterRegistry, String executorName) {
+        this.waitTimer = Timer.builder("executor.queue.wait")
+                .description("Time tasks spend queued before a worker picks them up")
+                .tag("name", executorName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("executor.task.run")
+                .description("Time tasks spend running on a worker")
+                .tag("name", executorName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedNanos = System.nanoTime();
+        return () -> {
+            long startNanos = System.nanoTime();
+            waitTimer.record(startNanos - submittedNanos, TimeUnit.NANOSECONDS);
+            try {
+                runnable.run();
+            } finally {
+                runTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.aiorchestration.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts retry attempts and circuit-breaker state transitions, including for instances the
+ * registries create lazily on first use.
+ */
+@Component
+@Slf4j
+public class ResilienceEventMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ResilienceEventMetrics(MeterRegistry meterRegistry,
+                                  RetryRegistry retryRegistry,
+                                  CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        retryRegistry.getAllRetries().forEach(this::bind);
+        retryRegistry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::bind);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+    }
+
+    private void bind(Retry retry) {
+        Counter retries = Counter.builder("resilience.retry.attempts")
+                .description("Calls retried after a failed attempt")
+                .tag("name", retry.getName())
+                .register(meterRegistry);
+        retry.getEventPublisher().onRetry(event -> retries.increment());
+    }
+
+    private void bind(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            meterRegistry.counter("resilience.circuitbreaker.transitions",
+                    "name", circuitBreaker.getName(),
+                    "from", transition.getFromState().name(),
+                    "to", transition.getToState().name()).increment();
+            log.warn("Circuit breaker {} moved from {} to {}", circuitBreaker.getName(),
+                    transition.getFromState(), transition.getToState());
+        });
+    }
+}
@@ -1,18 +1,21 @@
 package com.example.aiorchestration.utility.controller;
 
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.api.model.NdjsonStreams;
 import com.example.aiorchestration.utility.model.AuditLog;
 import com.example.aiorchestration.utility.service.AuditLogService;
 import com.example.aiorchestration.utility.service.RiskScoringService;
 import com.example.aiorchestration.utility.service.ThresholdService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -24,33 +27,74 @@ public class UtilityController {
     private final AuditLogService auditLogService;
     private final RiskScoringService riskScoringService;
     private final ThresholdService thresholdService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping("/audit-logs/type/{type}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByType(@PathVariable String type) {
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogsByType(
+            @PathVariable String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting audit logs by type: {}", type);
-        return ResponseEntity.ok(auditLogService.getAuditLogsByType(type));
+        return ResponseEntity.ok(auditLogService.getAuditLogsByType(type, cursor, limit));
+    }
+    
+    @GetMapping(value = "/audit-logs/type/{type}", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAuditLogsByType(@PathVariable String type) {
+        log.info("Streaming audit logs by type: {}", type);
+        return NdjsonStreams.<AuditLog>stream(objectMapper, action -> auditLogService.streamAuditLogsByType(type, action));
     }
     
     @GetMapping("/audit-logs/entity/{entityType}/{entityId}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByEntity(
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogsByEntity(
             @PathVariable String entityType, 
-            @PathVariable String entityId) {
+            @PathVariable String entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting audit logs by entity: {}/{}", entityType, entityId);
-        return ResponseEntity.ok(auditLogService.getAuditLogsByEntity(entityId, entityType));
+        return ResponseEntity.ok(auditLogService.getAuditLogsByEntity(entityId, entityType, cursor, limit));
+    }
+    
+    @GetMapping(value = "/audit-logs/entity/{entityType}/{entityId}", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAuditLogsByEntity(
+            @PathVariable String entityType, 
+            @PathVariable String entityId) {
+        log.info("Streaming audit logs by entity: {}/{}", entityType, entityId);
+        return NdjsonStreams.<AuditLog>stream(objectMapper,
+                action -> auditLogService.streamAuditLogsByEntity(entityId, entityType, action));
     }
     
     @GetMapping("/audit-logs/time-range")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByTimeRange(
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogsByTimeRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting audit logs by time range: {} to {}", start, end);
-        return ResponseEntity.ok(auditLogService.getAuditLogsByTimeRange(start, end));
+        return ResponseEntity.ok(auditLogService.getAuditLogsByTimeRange(start, end, cursor, limit));
+    }
+    
+    @GetMapping(value = "/audit-logs/time-range", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAuditLogsByTimeRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Streaming audit logs by time range: {} to {}", start, end);
+        return NdjsonStreams.<AuditLog>stream(objectMapper,
+                action -> auditLogService.streamAuditLogsByTimeRange(start, end, action));
     }
     
     @GetMapping("/audit-logs/user/{userId}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByUser(@PathVariable String userId) {
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogsByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting audit logs by user: {}", userId);
-        return ResponseEntity.ok(auditLogService.getAuditLogsByUser(userId));
+        return ResponseEntity.ok(auditLogService.getAuditLogsByUser(userId, cursor, limit));
+    }
+    
+    @GetMapping(value = "/audit-logs/user/{userId}", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAuditLogsByUser(@PathVariable String userId) {
+        log.info("Streaming audit logs by user: {}", userId);
+        return NdjsonStreams.<AuditLog>stream(objectMapper, action -> auditLogService.streamAuditLogsByUser(userId, action));
     }
     
     @PostMapping("/risk-score")
@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_logs_type", columnList = "type, timestamp, id"),
+        @Index(name = "idx_audit_logs_entity", columnList = "entityId, entityType, timestamp, id"),
+        @Index(name = "idx_audit_logs_user", columnList = "userId, timestamp, id"),
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp, id")
+})
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -1,16 +1,74 @@
 package com.example.aiorchestration.utility.repository;
 
 import com.example.aiorchestration.utility.model.AuditLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Audit log listings are keyset-paginated on (timestamp, id): each page starts after the last
+ * row of the previous one. The stream variants read the same order with a JDBC fetch size and
+ * read-only entities.
+ */
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, String> {
-    List<AuditLog> findByType(String type);
-    List<AuditLog> findByEntityIdAndEntityType(String entityId, String entityType);
-    List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
-    List<AuditLog> findByUserId(String userId);
+    
+    @Query("select a from AuditLog a where a.type = :type"
+            + " and (a.timestamp > :afterTimestamp or (a.timestamp = :afterTimestamp and a.id > :afterId))"
+            + " order by a.timestamp, a.id")
+    List<AuditLog> findPageByType(@Param("type") String type,
+                                  @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                  @Param("afterId") String afterId,
+                                  Limit limit);
+    
+    @Query("select a from AuditLog a where a.entityId = :entityId and a.entityType = :entityType"
+            + " and (a.timestamp > :afterTimestamp or (a.timestamp = :afterTimestamp and a.id > :afterId))"
+            + " order by a.timestamp, a.id")
+    List<AuditLog> findPageByEntity(@Param("entityId") String entityId,
+                                    @Param("entityType") String entityType,
+                                    @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                    @Param("afterId") String afterId,
+                                    Limit limit);
+    
+    @Query("select a from AuditLog a where a.timestamp between :start and :end"
+            + " and (a.timestamp > :afterTimestamp or (a.timestamp = :afterTimestamp and a.id > :afterId))"
+            + " order by a.timestamp, a.id")
+    List<AuditLog> findPageByTimeRange(@Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end,
+                                       @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                       @Param("afterId") String afterId,
+                                       Limit limit);
+    
+    @Query("select a from AuditLog a where a.userId = :userId"
+            + " and (a.timestamp > :afterTimestamp or (a.timestamp = :afterTimestamp and a.id > :afterId))"
+            + " order by a.timestamp, a.id")
+    List<AuditLog> findPageByUser(@Param("userId") String userId,
+                                  @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                  @Param("afterId") String afterId,
+                                  Limit limit);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<AuditLog> streamByTypeOrderByTimestampAscIdAsc(String type);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<AuditLog> streamByEntityIdAndEntityTypeOrderByTimestampAscIdAsc(String entityId, String entityType);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<AuditLog> streamByTimestampBetweenOrderByTimestampAscIdAsc(LocalDateTime start, LocalDateTime end);
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<AuditLog> streamByUserIdOrderByTimestampAscIdAsc(String userId);
 }
@@ -0,0 +1,179 @@
+package com.example.aiorchestration.utility.service;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * Encodes audit payloads as JSON in a single pass into a reused per-thread buffer.
+ *
+ * Strings are fully escaped, numbers and booleans keep their JSON types, nested maps, collections
+ * and arrays are written as objects and arrays, and anything else is written as its string form.
+ * Numbers and plain string runs are appended in place, so the returned string is the only
+ * allocation for typical payloads.
+ */
+public final class AuditJsonEncoder {
+
+    private static final int MAX_DEPTH = 32;
+
+    // Buffers that grew past this are dropped after use instead of being held by the thread
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private AuditJsonEncoder() {
+    }
+
+    public static String encode(Map<?, ?> data) {
+        if (data == null) {
+            return null;
+        }
+
+        StringBuilder json = BUFFER.get();
+        try {
+            writeObject(json, data, 0);
+            return json.toString();
+        } finally {
+            if (json.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            } else {
+                json.setLength(0);
+            }
+        }
+    }
+
+    private static void writeValue(StringBuilder json, Object value, int depth) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof CharSequence text) {
+            writeString(json, text);
+        } else if (value instanceof Boolean bool) {
+            json.append(bool.booleanValue());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            json.append(((Number) value).longValue());
+        } else if (value instanceof Float number) {
+            writeFloatingPoint(json, number.floatValue());
+        } else if (value instanceof Double number) {
+            writeFloatingPoint(json, number.doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            json.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            writeObject(json, map, depth + 1);
+        } else if (value instanceof Iterable<?> iterable) {
+            writeArray(json, iterable, depth + 1);
+        } else if (value.getClass().isArray()) {
+            writePrimitiveOrObjectArray(json, value, depth + 1);
+        } else if (value instanceof Enum<?> constant) {
+            writeString(json, constant.name());
+        } else {
+            writeString(json, value.toString());
+        }
+    }
+
+    private static void writeObject(StringBuilder json, Map<?, ?> map, int depth) {
+        checkDepth(depth);
+        json.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            writeString(json, String.valueOf(entry.getKey()));
+            json.append(':');
+            writeValue(json, entry.getValue(), depth);
+            first = false;
+        }
+        json.append('}');
+    }
+
+    private static void writeArray(StringBuilder json, Iterable<?> values, int depth) {
+        checkDepth(depth);
+        json.append('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            writeValue(json, value, depth);
+            first = false;
+        }
+        json.append(']');
+    }
+
+    private static void writePrimitiveOrObjectArray(StringBuilder json, Object array, int depth) {
+        checkDepth(depth);
+        json.append('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            writeValue(json, Array.get(array, i), depth);
+        }
+        json.append(']');
+    }
+
+    // JSON has no NaN or infinity, so those are written as strings
+    private static void writeFloatingPoint(StringBuilder json, double value) {
+        if (Double.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append('"').append(value).append('"');
+        }
+    }
+
+    // Appended as a float so 0.1f stays 0.1 instead of its widened double value
+    private static void writeFloatingPoint(StringBuilder json, float value) {
+        if (Float.isFinite(value)) {
+            json.append(value);
+        } else {
+            json.append('"').append(value).append('"');
+        }
+    }
+
+    private static void writeString(StringBuilder json, CharSequence text) {
+        json.append('"');
+        int runStart = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            // Line and paragraph separators are escaped too, for consumers that embed the JSON in scripts
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029' && !Character.isSurrogate(c)) {
+                continue;
+            }
+            // Surrogate pairs are copied as they are; a lone surrogate is not valid UTF-16 and is escaped
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i++;
+                continue;
+            }
+            // Copy the run of safe characters before the one that needs escaping
+            json.append(text, runStart, i);
+            runStart = i + 1;
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> json.append("\\u")
+                        .append(HEX[(c >> 12) & 0xF])
+                        .append(HEX[(c >> 8) & 0xF])
+                        .append(HEX[(c >> 4) & 0xF])
+                        .append(HEX[c & 0xF]);
+            }
+        }
+        json.append(text, runStart, length);
+        json.append('"');
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Audit payload is nested deeper than " + MAX_DEPTH + " levels");
+        }
+    }
+}
@@ -1,85 +1,138 @@
 package com.example.aiorchestration.utility.service;
 
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.api.model.InvalidCursorException;
 import com.example.aiorchestration.utility.model.AuditLog;
 import com.example.aiorchestration.utility.repository.AuditLogRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditLogService {
 
+    // Sorts before every audit timestamp; the first page starts after it
+    private static final LocalDateTime FIRST_PAGE_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final AuditLogRepository auditLogRepository;
+    private final EntityManager entityManager;
+    private final AuditLogWriter auditLogWriter;
     
-    @Transactional
+    // Id and timestamp are assigned here because the writer inserts through JDBC, not JPA
     public AuditLog logEvent(String type, String entityId, String entityType, String userId, String data) {
-        log.info("Logging audit event: type={}, entityId={}, entityType={}, userId={}", 
+        log.debug("Logging audit event: type={}, entityId={}, entityType={}, userId={}", 
                 type, entityId, entityType, userId);
         
         AuditLog auditLog = AuditLog.builder()
+                .id(UUID.randomUUID().toString())
                 .type(type)
                 .entityId(entityId)
                 .entityType(entityType)
                 .userId(userId)
                 .data(data)
+                .timestamp(LocalDateTime.now())
                 .build();
         
-        return auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
+        return auditLog;
     }
     
-    @Transactional
     public AuditLog logEvent(String type, String entityId, String entityType, String userId, Map<String, Object> data) {
-        // Convert map to JSON string
-        String dataJson = convertMapToJson(data);
-        return logEvent(type, entityId, entityType, userId, dataJson);
+        return logEvent(type, entityId, entityType, userId, AuditJsonEncoder.encode(data));
     }
     
     @Transactional(readOnly = true)
-    @Cacheable(value = "auditLogs", key = "#type")
-    public List<AuditLog> getAuditLogsByType(String type) {
-        return auditLogRepository.findByType(type);
+    public CursorPage<AuditLog> getAuditLogsByType(String type, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        AfterKey after = afterKey(cursor);
+        return page(auditLogRepository.findPageByType(type,
+                after.timestamp(), after.id(), Limit.of(pageSize + 1)), pageSize);
     }
     
     @Transactional(readOnly = true)
-    @Cacheable(value = "auditLogs", key = "#entityId + '-' + #entityType")
-    public List<AuditLog> getAuditLogsByEntity(String entityId, String entityType) {
-        return auditLogRepository.findByEntityIdAndEntityType(entityId, entityType);
+    public CursorPage<AuditLog> getAuditLogsByEntity(String entityId, String entityType, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        AfterKey after = afterKey(cursor);
+        return page(auditLogRepository.findPageByEntity(entityId, entityType,
+                after.timestamp(), after.id(), Limit.of(pageSize + 1)), pageSize);
     }
     
     @Transactional(readOnly = true)
-    public List<AuditLog> getAuditLogsByTimeRange(LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByTimestampBetween(start, end);
+    public CursorPage<AuditLog> getAuditLogsByTimeRange(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        AfterKey after = afterKey(cursor);
+        return page(auditLogRepository.findPageByTimeRange(start, end,
+                after.timestamp(), after.id(), Limit.of(pageSize + 1)), pageSize);
     }
     
     @Transactional(readOnly = true)
-    @Cacheable(value = "auditLogs", key = "#userId")
-    public List<AuditLog> getAuditLogsByUser(String userId) {
-        return auditLogRepository.findByUserId(userId);
+    public CursorPage<AuditLog> getAuditLogsByUser(String userId, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        AfterKey after = afterKey(cursor);
+        return page(auditLogRepository.findPageByUser(userId,
+                after.timestamp(), after.id(), Limit.of(pageSize + 1)), pageSize);
     }
     
-    private String convertMapToJson(Map<String, Object> data) {
-        // Simple implementation for MVP
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
-        
-        for (Map.Entry<String, Object> entry : data.entrySet()) {
-            if (!first) {
-                json.append(",");
-            }
-            json.append("\"").append(entry.getKey()).append("\":\"")
-                .append(entry.getValue().toString().replace("\"", "\\\"")).append("\"");
-            first = false;
+    @Transactional(readOnly = true)
+    public void streamAuditLogsByType(String type, Consumer<AuditLog> action) {
+        stream(auditLogRepository.streamByTypeOrderByTimestampAscIdAsc(type), action);
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamAuditLogsByEntity(String entityId, String entityType, Consumer<AuditLog> action) {
+        stream(auditLogRepository.streamByEntityIdAndEntityTypeOrderByTimestampAscIdAsc(entityId, entityType), action);
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamAuditLogsByTimeRange(LocalDateTime start, LocalDateTime end, Consumer<AuditLog> action) {
+        stream(auditLogRepository.streamByTimestampBetweenOrderByTimestampAscIdAsc(start, end), action);
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamAuditLogsByUser(String userId, Consumer<AuditLog> action) {
+        stream(auditLogRepository.streamByUserIdOrderByTimestampAscIdAsc(userId), action);
+    }
+    
+    private AfterKey afterKey(String cursor) {
+        String[] keys = CursorPage.decodeCursor(cursor, 2);
+        if (keys == null) {
+            return new AfterKey(FIRST_PAGE_TIMESTAMP, "");
         }
-        
-        json.append("}");
-        return json.toString();
+        try {
+            return new AfterKey(LocalDateTime.parse(keys[0]), keys[1]);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+    
+    private CursorPage<AuditLog> page(List<AuditLog> rows, int pageSize) {
+        return CursorPage.of(rows, pageSize,
+                auditLog -> CursorPage.encodeCursor(auditLog.getTimestamp().toString(), auditLog.getId()));
+    }
+    
+    // Detach each row once written so the persistence context does not grow with the result
+    private void stream(Stream<AuditLog> auditLogs, Consumer<AuditLog> action) {
+        try (auditLogs) {
+            auditLogs.forEach(auditLog -> {
+                action.accept(auditLog);
+                entityManager.detach(auditLog);
+            });
+        }
+    }
+    
+    private record AfterKey(LocalDateTime timestamp, String id) {
     }
 }
@@ -0,0 +1,293 @@
+package com.example.aiorchestration.utility.service;
+
+import com.example.aiorchestration.utility.model.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Buffers audit entries in a bounded queue and writes them from a background thread as batched
+ * JDBC inserts, one transaction per batch.
+ *
+ * The overflow policy decides what a caller does when the buffer is full: drop the entry, block for
+ * up to the offer timeout and then drop, or write the entry itself. In async durability mode callers
+ * return as soon as the entry is queued, so entries still buffered are lost if the process dies;
+ * in sync mode they wait until the batch holding their entry has committed.
+ *
+ * Entries are checked against the table's constraints before they are queued. A batch that still
+ * fails after its retries is written again one entry at a time, so only the entries that cannot be
+ * stored are lost.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = "insert into audit_logs "
+            + "(id, type, entity_id, entity_type, user_id, data, timestamp) values (?, ?, ?, ?, ?, ?, ?)";
+
+    // Length of the data column
+    private static final int MAX_DATA_LENGTH = 5000;
+
+    public enum OverflowPolicy { DROP, BLOCK, CALLER_RUNS }
+
+    public enum Durability { ASYNC, SYNC }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final OverflowPolicy overflowPolicy;
+    private final Durability durability;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.buffer-size:10000}") int bufferSize,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:50}") long flushIntervalMs,
+                          @Value("${audit.writer.offer-timeout-ms:100}") long offerTimeoutMs,
+                          @Value("${audit.writer.max-attempts:3}") int maxAttempts,
+                          @Value("${audit.writer.overflow-policy:drop}") String overflowPolicy,
+                          @Value("${audit.writer.durability:async}") String durability) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.overflowPolicy = OverflowPolicy.valueOf(constantName(overflowPolicy));
+        this.durability = Durability.valueOf(constantName(durability));
+
+        meterRegistry.gaugeCollectionSize("audit.writer.buffered", List.of(), buffer);
+        this.writtenCounter = meterRegistry.counter("audit.writer.written");
+        this.droppedCounter = meterRegistry.counter("audit.writer.dropped");
+        this.failedCounter = meterRegistry.counter("audit.writer.failed");
+        this.batchTimer = Timer.builder("audit.writer.batch")
+                .description("Time to insert and commit one batch of audit entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an entry whose id and timestamp are already assigned. Data longer than the column is
+     * truncated.
+     *
+     * @throws IllegalArgumentException if a required field is missing
+     */
+    public void write(AuditLog auditLog) {
+        validate(auditLog);
+        PendingEntry pending = new PendingEntry(auditLog,
+                durability == Durability.SYNC ? new CompletableFuture<>() : null);
+
+        if (!enqueue(pending)) {
+            if (overflowPolicy != OverflowPolicy.CALLER_RUNS) {
+                droppedCounter.increment();
+                log.warn("Audit buffer full, dropped {} entry for {}", auditLog.getType(), auditLog.getEntityType());
+                return;
+            }
+            insert(List.of(pending));
+        }
+
+        if (pending.committed() != null) {
+            awaitCommit(pending);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "AuditLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private boolean enqueue(PendingEntry pending) {
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            return buffer.offer(pending);
+        }
+        try {
+            return buffer.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitCommit(PendingEntry pending) {
+        try {
+            pending.committed().get(flushIntervalMs + TimeUnit.SECONDS.toMillis(30), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the audit entry to commit", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Audit entry was not committed", e);
+        }
+    }
+
+    private void run() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        // Keep going after a stop request until the buffer is drained
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingEntry first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Let entries accumulate for up to the flush interval unless a full batch is waiting
+                if (flushIntervalMs > 0 && buffer.size() < batchSize - 1) {
+                    Thread.sleep(flushIntervalMs);
+                }
+                buffer.drainTo(batch, batchSize - 1);
+
+                insert(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<PendingEntry> batch) {
+        Exception failure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            failure = tryInsert(batch);
+            if (failure == null) {
+                return;
+            }
+            log.warn("Writing a batch of {} audit entries failed (attempt {}/{}): {}",
+                    batch.size(), attempt, maxAttempts, failure.getMessage());
+            if (attempt < maxAttempts) {
+                sleepBeforeRetry(attempt);
+            }
+        }
+
+        if (batch.size() == 1) {
+            giveUp(batch.get(0), failure);
+            return;
+        }
+
+        // One bad entry fails the whole batch, so write the entries on their own to keep the others
+        log.warn("Writing the {} audit entries of the failed batch one at a time", batch.size());
+        for (PendingEntry pending : batch) {
+            Exception entryFailure = tryInsert(List.of(pending));
+            if (entryFailure != null) {
+                giveUp(pending, entryFailure);
+            }
+        }
+    }
+
+    /**
+     * @return null once the entries have committed, otherwise the failure
+     */
+    private Exception tryInsert(List<PendingEntry> entries) {
+        long startNanos = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (statement, pending) -> {
+                        AuditLog auditLog = pending.auditLog();
+                        statement.setString(1, auditLog.getId());
+                        statement.setString(2, auditLog.getType());
+                        statement.setString(3, auditLog.getEntityId());
+                        statement.setString(4, auditLog.getEntityType());
+                        statement.setString(5, auditLog.getUserId());
+                        statement.setString(6, auditLog.getData());
+                        statement.setTimestamp(7, Timestamp.valueOf(auditLog.getTimestamp()));
+                    }));
+        } catch (Exception e) {
+            return e;
+        }
+        batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        writtenCounter.increment(entries.size());
+        entries.forEach(pending -> complete(pending, null));
+        return null;
+    }
+
+    private void giveUp(PendingEntry pending, Exception failure) {
+        AuditLog auditLog = pending.auditLog();
+        failedCounter.increment();
+        log.error("Gave up writing audit entry {} ({} for {}): {}",
+                auditLog.getId(), auditLog.getType(), auditLog.getEntityType(), failure.getMessage());
+        complete(pending, failure);
+    }
+
+    private void validate(AuditLog auditLog) {
+        if (auditLog.getId() == null || auditLog.getTimestamp() == null) {
+            throw new IllegalArgumentException("Audit entry has no id or timestamp assigned");
+        }
+        if (auditLog.getType() == null || auditLog.getUserId() == null) {
+            throw new IllegalArgumentException("Audit entry " + auditLog.getType() + " needs a type and a user id");
+        }
+        String data = auditLog.getData();
+        if (data != null && data.length() > MAX_DATA_LENGTH) {
+            log.warn("Truncating {} audit data of {} characters to {}", auditLog.getType(), data.length(), MAX_DATA_LENGTH);
+            // Never cut a surrogate pair in half
+            int end = Character.isHighSurrogate(data.charAt(MAX_DATA_LENGTH - 1)) ? MAX_DATA_LENGTH - 1 : MAX_DATA_LENGTH;
+            auditLog.setData(data.substring(0, end));
+        }
+    }
+
+    private void complete(PendingEntry pending, Exception failure) {
+        if (pending.committed() == null) {
+            return;
+        }
+        if (failure == null) {
+            pending.committed().complete(null);
+        } else {
+            pending.committed().completeExceptionally(failure);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(100L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String constantName(String value) {
+        return value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+
+    private record PendingEntry(AuditLog auditLog, CompletableFuture<Void> committed) {
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.aiorchestration.workflow.controller;
 
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.api.model.NdjsonStreams;
+import com.example.aiorchestration.workflow.eventlog.ExecutionLogEntry;
 import com.example.aiorchestration.workflow.model.Workflow;
 import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionSummary;
+import com.example.aiorchestration.workflow.model.WorkflowSummary;
 import com.example.aiorchestration.workflow.service.WorkflowService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +28,7 @@ import java.util.concurrent.CompletableFuture;
 public class WorkflowController {
 
     private final WorkflowService workflowService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<Workflow> createWorkflow(@Valid @RequestBody Workflow workflow) {
@@ -29,9 +37,17 @@ public class WorkflowController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Workflow>> getAllWorkflows() {
-        log.info("Getting all workflows");
-        return ResponseEntity.ok(workflowService.getAllWorkflows());
+    public ResponseEntity<CursorPage<WorkflowSummary>> getAllWorkflows(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Getting workflows after cursor: {}", cursor);
+        return ResponseEntity.ok(workflowService.getWorkflows(cursor, limit));
+    }
+    
+    @GetMapping(produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllWorkflows() {
+        log.info("Streaming all workflows");
+        return NdjsonStreams.<WorkflowSummary>stream(objectMapper, workflowService::streamWorkflows);
     }
     
     @GetMapping("/{id}")
@@ -41,7 +57,7 @@ public class WorkflowController {
     }
     
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Workflow>> getWorkflowsByType(@PathVariable String type) {
+    public ResponseEntity<List<WorkflowSummary>> getWorkflowsByType(@PathVariable String type) {
         log.info("Getting workflows by type: {}", type);
         return ResponseEntity.ok(workflowService.getWorkflowsByType(type));
     }
@@ -60,17 +76,28 @@ public class WorkflowController {
     }
     
     @PostMapping("/{id}/execute")
-    public ResponseEntity<CompletableFuture<WorkflowExecution>> executeWorkflow(
+    public CompletableFuture<ResponseEntity<WorkflowExecution>> executeWorkflow(
             @PathVariable String id, 
             @RequestBody(required = false) Map<String, Object> inputs) {
         log.info("Executing workflow: {}", id);
-        return ResponseEntity.accepted().body(workflowService.executeWorkflow(id, inputs));
+        return workflowService.executeWorkflow(id, inputs)
+                .thenApply(execution -> ResponseEntity.accepted().body(execution));
     }
     
     @GetMapping("/{id}/executions")
-    public ResponseEntity<List<WorkflowExecution>> getWorkflowExecutions(@PathVariable String id) {
+    public ResponseEntity<CursorPage<WorkflowExecutionSummary>> getWorkflowExecutions(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         log.info("Getting executions for workflow: {}", id);
-        return ResponseEntity.ok(workflowService.getWorkflowExecutions(id));
+        return ResponseEntity.ok(workflowService.getWorkflowExecutions(id, cursor, limit));
+    }
+    
+    @GetMapping(value = "/{id}/executions", produces = NdjsonStreams.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamWorkflowExecutions(@PathVariable String id) {
+        log.info("Streaming executions for workflow: {}", id);
+        return NdjsonStreams.<WorkflowExecutionSummary>stream(objectMapper,
+                action -> workflowService.streamWorkflowExecutions(id, action));
     }
     
     @GetMapping("/executions/{executionId}")
@@ -79,6 +106,18 @@ public class WorkflowController {
         return ResponseEntity.ok(workflowService.getWorkflowExecution(executionId));
     }
     
+    @GetMapping("/executions/{executionId}/history")
+    public ResponseEntity<List<ExecutionLogEntry>> getExecutionHistory(@PathVariable String executionId) {
+        log.info("Getting event history of workflow execution: {}", executionId);
+        return ResponseEntity.ok(workflowService.getExecutionHistory(executionId));
+    }
+    
+    @GetMapping("/executions/{executionId}/replay")
+    public ResponseEntity<WorkflowExecution> replayWorkflowExecution(@PathVariable String executionId) {
+        log.info("Replaying workflow execution from its event log: {}", executionId);
+        return ResponseEntity.ok(workflowService.replayWorkflowExecution(executionId));
+    }
+    
     @PostMapping("/executions/{executionId}/cancel")
     public ResponseEntity<Void> cancelWorkflowExecution(@PathVariable String executionId) {
         log.info("Cancelling workflow execution: {}", executionId);
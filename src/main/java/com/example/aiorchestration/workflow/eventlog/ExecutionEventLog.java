@@ -0,0 +1,363 @@
+package com.example.aiorchestration.workflow.eventlog;
+
+import com.example.aiorchestration.event.BinaryEventCodec;
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of workflow execution events on local memory-mapped segment files, kept for
+ * replay and debugging without adding rows to the database.
+ *
+ * Every record points back to the previous record of the same execution, so the index only holds
+ * each execution's latest offset and a replay follows the chain instead of scanning the log. The
+ * active segment rolls when full. Compaction removes the oldest segments once more than
+ * {@code retained-segments} are closed: executions idle for longer than the retention period are
+ * dropped, and the history of the others is copied to the head of the log first. Expired executions
+ * are also left out of the index when the log is reopened.
+ *
+ * Records are written when the event is published, so the log also shows attempts whose database
+ * transaction later rolled back. Segments are forced to disk on roll, periodically and at shutdown.
+ */
+@Component
+@Slf4j
+public class ExecutionEventLog {
+
+    private static final TypeReference<Map<String, String>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int retainedSegments;
+    private final Duration retention;
+
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    private LogSegment active;
+
+    public ExecutionEventLog(ObjectMapper objectMapper,
+                             @Value("${workflow.event-log.enabled:true}") boolean enabled,
+                             @Value("${workflow.event-log.directory:${java.io.tmpdir}/aio-event-log}") String directory,
+                             @Value("${workflow.event-log.segment-bytes:67108864}") int segmentBytes,
+                             @Value("${workflow.event-log.retained-segments:8}") int retainedSegments,
+                             @Value("${workflow.event-log.retention-hours:168}") long retentionHours) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            LogSegment segment = LogSegment.open(file, LogSegment.baseOffsetOf(file), segmentBytes);
+            recover(segment);
+            segments.add(segment);
+        }
+        // Compaction only drops expired executions from the index, so drop them again here
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(retention);
+        index.values().removeIf(entry -> isExpired(entry, expiredBefore));
+        if (segments.isEmpty()) {
+            segments.add(LogSegment.create(directory, 0, segmentBytes));
+        }
+        active = segments.get(segments.size() - 1);
+        log.info("Opened execution event log in {}: {} segments, {} executions", directory, segments.size(), index.size());
+    }
+
+    /**
+     * Appends an execution event. Failures are logged, never thrown: the log must not fail the
+     * workflow it records.
+     */
+    public void append(WorkflowEvent event, WorkflowExecution execution) {
+        if (!enabled || event.getExecutionId() == null) {
+            return;
+        }
+        try {
+            append(event, detailOf(event, execution));
+        } catch (RuntimeException e) {
+            log.warn("Could not append {} of execution {} to the event log: {}",
+                    event.getType(), event.getExecutionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Holds the log's lock while reading, since compaction unmaps the segments it removes.
+     *
+     * @return The execution's log records, oldest first
+     */
+    public synchronized List<ExecutionLogEntry> history(String executionId) {
+        IndexEntry entry = enabled ? index.get(executionId) : null;
+        if (entry == null) {
+            throw new EntityNotFoundException("No event log for workflow execution: " + executionId);
+        }
+
+        List<ExecutionLogEntry> entries = new ArrayList<>();
+        long offset = entry.lastOffset();
+        while (offset >= 0) {
+            LogSegment segment = segmentFor(offset);
+            if (segment == null) {
+                // Older records were compacted away
+                break;
+            }
+            ByteBuffer body = segment.read(offset);
+            long previous = body.getLong(0);
+            entries.add(decode(body));
+            offset = previous;
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Rebuilds the state of an execution from its log records.
+     */
+    public WorkflowExecution replay(String executionId) {
+        WorkflowExecution execution = WorkflowExecution.builder()
+                .id(executionId)
+                .build();
+
+        for (ExecutionLogEntry entry : history(executionId)) {
+            WorkflowEvent event = entry.getEvent();
+            execution.setWorkflowId(event.getWorkflowId());
+            execution.setWorkflowName(event.getWorkflowName());
+            if (event.getStatus() != null) {
+                execution.setStatus(event.getStatus());
+            }
+
+            switch (event.getType()) {
+                case EXECUTION_STARTED -> {
+                    execution.setStartTime(event.getTimestamp());
+                    if (entry.getDetail() != null) {
+                        execution.getMetadata().putAll(readMetadata(entry.getDetail()));
+                    }
+                }
+                case STEP_STARTED -> execution.setCurrentStepId(event.getStepId());
+                case STEP_COMPLETED, HUMAN_REVIEW_COMPLETED -> execution.getStepResults().put(event.getStepId(), entry.getDetail());
+                case EXECUTION_COMPLETED -> execution.setEndTime(event.getTimestamp());
+                case EXECUTION_FAILED -> {
+                    execution.setEndTime(event.getTimestamp());
+                    if (event.getStatus() != WorkflowExecutionStatus.CANCELLED) {
+                        execution.setErrorMessage(entry.getDetail());
+                    }
+                }
+                default -> {
+                    // Status alone is carried by the event
+                }
+            }
+        }
+        return execution;
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.event-log.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (active != null) {
+            active.flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.event-log.compaction-interval-ms:60000}")
+    public synchronized void compact() {
+        if (active == null) {
+            return;
+        }
+        int removable = segments.size() - 1 - retainedSegments;
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(retention);
+        for (int i = 0; i < removable; i++) {
+            LogSegment oldest = segments.get(0);
+            int copied = 0;
+            int expired = 0;
+            for (String executionId : oldest.executionIds) {
+                IndexEntry entry = index.get(executionId);
+                if (entry == null) {
+                    continue;
+                }
+                if (isExpired(entry, expiredBefore)) {
+                    index.remove(executionId);
+                    expired++;
+                } else {
+                    copyForward(executionId);
+                    copied++;
+                }
+            }
+
+            segments.remove(oldest);
+            try {
+                oldest.delete();
+            } catch (IOException e) {
+                log.warn("Could not delete event log segment {}: {}", oldest.getBaseOffset(), e.getMessage());
+            }
+            log.info("Compacted event log segment {}: {} executions expired, {} copied forward",
+                    oldest.getBaseOffset(), expired, copied);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        flush();
+    }
+
+    private synchronized void append(WorkflowEvent event, String detail) {
+        String executionId = event.getExecutionId();
+        IndexEntry previous = index.get(executionId);
+        long offset = write(encode(previous != null ? previous.lastOffset() : -1, event, detail));
+        active.executionIds.add(executionId);
+        index.put(executionId, new IndexEntry(offset, event.getTimestamp()));
+    }
+
+    private long write(byte[] body) {
+        long offset = active.append(body);
+        if (offset >= 0) {
+            return offset;
+        }
+        if (active.isEmpty()) {
+            throw new IllegalArgumentException("Event log record of " + body.length + " bytes does not fit in a segment");
+        }
+        roll();
+        return active.append(body);
+    }
+
+    private void roll() {
+        active.flush();
+        try {
+            active = LogSegment.create(directory, active.getEndOffset(), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create event log segment", e);
+        }
+        segments.add(active);
+    }
+
+    // Re-appends an execution's whole history so its chain no longer reaches the oldest segment
+    private void copyForward(String executionId) {
+        List<ExecutionLogEntry> entries = history(executionId);
+        index.remove(executionId);
+        for (ExecutionLogEntry entry : entries) {
+            append(entry.getEvent(), entry.getDetail());
+        }
+    }
+
+    private void recover(LogSegment segment) {
+        if (segment.isEmpty()) {
+            return;
+        }
+        long offset = segment.getBaseOffset();
+        while (offset >= 0) {
+            WorkflowEvent event = decode(segment.read(offset)).getEvent();
+            segment.executionIds.add(event.getExecutionId());
+            index.put(event.getExecutionId(), new IndexEntry(offset, event.getTimestamp()));
+            offset = segment.next(offset);
+        }
+    }
+
+    private static boolean isExpired(IndexEntry entry, LocalDateTime expiredBefore) {
+        return entry.lastEventAt() == null || entry.lastEventAt().isBefore(expiredBefore);
+    }
+
+    private LogSegment segmentFor(long offset) {
+        for (LogSegment segment : segments) {
+            if (segment.contains(offset)) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private String detailOf(WorkflowEvent event, WorkflowExecution execution) {
+        return switch (event.getType()) {
+            case EXECUTION_STARTED -> writeMetadata(execution.getMetadata());
+            case STEP_COMPLETED, HUMAN_REVIEW_COMPLETED -> execution.getStepResults().get(event.getStepId());
+            case EXECUTION_FAILED -> execution.getErrorMessage();
+            default -> null;
+        };
+    }
+
+    // Body: [previous offset][event length][binary event][detail length, -1 for none][UTF-8 detail]
+    private byte[] encode(long previousOffset, WorkflowEvent event, String detail) {
+        byte[] eventBytes = BinaryEventCodec.encode(event);
+        byte[] detailBytes = detail != null ? detail.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer body = ByteBuffer.allocate(8 + 4 + eventBytes.length + 4 + (detailBytes != null ? detailBytes.length : 0));
+        body.putLong(previousOffset);
+        body.putInt(eventBytes.length);
+        body.put(eventBytes);
+        body.putInt(detailBytes != null ? detailBytes.length : -1);
+        if (detailBytes != null) {
+            body.put(detailBytes);
+        }
+        return body.array();
+    }
+
+    private ExecutionLogEntry decode(ByteBuffer body) {
+        int eventLength = body.getInt(8);
+        byte[] eventBytes = new byte[eventLength];
+        body.get(12, eventBytes);
+        int detailLength = body.getInt(12 + eventLength);
+        String detail = null;
+        if (detailLength >= 0) {
+            byte[] detailBytes = new byte[detailLength];
+            body.get(16 + eventLength, detailBytes);
+            detail = new String(detailBytes, StandardCharsets.UTF_8);
+        }
+        return new ExecutionLogEntry((WorkflowEvent) BinaryEventCodec.decode(eventBytes), detail);
+    }
+
+    private String writeMetadata(Map<String, String> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Execution metadata cannot be serialized", e);
+        }
+    }
+
+    private Map<String, String> readMetadata(String json) {
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt execution metadata in event log", e);
+        }
+    }
+
+    private record IndexEntry(long lastOffset, LocalDateTime lastEventAt) {
+    }
+}
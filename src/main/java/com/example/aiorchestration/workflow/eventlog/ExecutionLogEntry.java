@@ -0,0 +1,18 @@
+package com.example.aiorchestration.workflow.eventlog;
+
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One record of an execution's event log: the published event plus the data needed to replay it
+ * (the step result, the error message, or the execution inputs).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionLogEntry {
+    private WorkflowEvent event;
+    private String detail;
+}
@@ -0,0 +1,167 @@
+package com.example.aiorchestration.workflow.eventlog;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped file of the execution event log.
+ *
+ * Records are {@code [length][crc32][body]}; a zero length marks the end of the written region.
+ * Offsets are global: the segment's base offset plus the position within the file.
+ */
+class LogSegment {
+
+    static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final long baseOffset;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    // Executions with records in this segment, for compaction; guarded by the log
+    final Set<String> executionIds = new HashSet<>();
+
+    private LogSegment(Path path, long baseOffset, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseOffset = baseOffset;
+        this.buffer = buffer;
+    }
+
+    static LogSegment create(Path directory, long baseOffset, int capacity) throws IOException {
+        return open(directory.resolve(fileName(baseOffset)), baseOffset, capacity);
+    }
+
+    /**
+     * Maps an existing or new segment file and finds the end of its valid records. A torn record
+     * at the end, left by a crash mid-write, is treated as the end.
+     */
+    static LogSegment open(Path path, long baseOffset, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int size = (int) Math.max(capacity, channel.size());
+            LogSegment segment = new LogSegment(path, baseOffset, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.position = segment.scanEnd();
+            return segment;
+        }
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d.log", baseOffset);
+    }
+
+    static long baseOffsetOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+    }
+
+    /**
+     * @return The global offset of the record, or -1 when the segment has no room for it
+     */
+    long append(byte[] body) {
+        int recordBytes = HEADER_BYTES + body.length;
+        // Keep room for the zero length that terminates the written region
+        if (position + recordBytes + 4 > buffer.capacity()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        // Body and checksum first, length last, so a reader never sees a partial record as complete
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + HEADER_BYTES, body);
+        buffer.putInt(position + recordBytes, 0);
+        buffer.putInt(position, body.length);
+
+        long offset = baseOffset + position;
+        position += recordBytes;
+        return offset;
+    }
+
+    /**
+     * @return The body of the record at a global offset in this segment
+     */
+    ByteBuffer read(long offset) {
+        int recordPosition = (int) (offset - baseOffset);
+        int length = buffer.getInt(recordPosition);
+        return buffer.slice(recordPosition + HEADER_BYTES, length);
+    }
+
+    /**
+     * @return The global offset of the record after the one at {@code offset}, or -1 at the end
+     */
+    long next(long offset) {
+        int recordPosition = (int) (offset - baseOffset);
+        int nextPosition = recordPosition + HEADER_BYTES + buffer.getInt(recordPosition);
+        return nextPosition < position ? baseOffset + nextPosition : -1;
+    }
+
+    boolean contains(long offset) {
+        return offset >= baseOffset && offset < baseOffset + position;
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getEndOffset() {
+        return baseOffset + position;
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Unmaps and deletes the file. The segment must not be read afterwards: slices handed out by
+     * {@link #read} become invalid once the mapping is released.
+     */
+    void delete() throws IOException {
+        unmap(buffer);
+        Files.deleteIfExists(path);
+    }
+
+    // Releases the mapping now instead of when the buffer is collected, which can be long after the
+    // file is deleted; without the unsupported API the mapping is left to the garbage collector
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Fall back to unmapping on collection
+        }
+    }
+
+    private int scanEnd() {
+        int scan = 0;
+        while (scan + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(scan);
+            if (length <= 0 || scan + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(scan + HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(scan + 4)) {
+                break;
+            }
+            scan += HEADER_BYTES + length;
+        }
+        return scan;
+    }
+}
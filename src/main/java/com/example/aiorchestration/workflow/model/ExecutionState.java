@@ -0,0 +1,37 @@
+package com.example.aiorchestration.workflow.model;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Step results and metadata of a workflow execution, stored together as one JSON column on the
+ * execution row. The version identifies the document layout so older rows can be upgraded on load.
+ */
+@Data
+public class ExecutionState {
+
+    public static final int CURRENT_VERSION = 1;
+
+    private int version = CURRENT_VERSION;
+    private Map<String, String> stepResults = new HashMap<>();
+    private Map<String, String> metadata = new HashMap<>();
+
+    /**
+     * Brings a loaded document to the current layout.
+     */
+    public void upgrade() {
+        if (version > CURRENT_VERSION) {
+            throw new IllegalStateException("Execution state version " + version
+                    + " is newer than supported version " + CURRENT_VERSION);
+        }
+        if (stepResults == null) {
+            stepResults = new HashMap<>();
+        }
+        if (metadata == null) {
+            metadata = new HashMap<>();
+        }
+        version = CURRENT_VERSION;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.aiorchestration.workflow.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -15,7 +18,8 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "workflow_executions")
+@Table(name = "workflow_executions",
+       indexes = @Index(name = "idx_workflow_executions_workflow_id", columnList = "workflowId, id"))
 public class WorkflowExecution {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -33,19 +37,12 @@ public class WorkflowExecution {
     
     private String currentStepId;
     
-    @ElementCollection
-    @CollectionTable(name = "workflow_execution_results", 
-                    joinColumns = @JoinColumn(name = "execution_id"))
-    @MapKeyColumn(name = "step_id")
-    @Column(name = "result", length = 10000)
-    private Map<String, String> stepResults = new HashMap<>();
-    
-    @ElementCollection
-    @CollectionTable(name = "workflow_execution_metadata", 
-                    joinColumns = @JoinColumn(name = "execution_id"))
-    @MapKeyColumn(name = "metadata_key")
-    @Column(name = "metadata_value")
-    private Map<String, String> metadata = new HashMap<>();
+    // Step results and metadata share one versioned JSON column, so completing a step is a single-row update
+    @JsonIgnore
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "state")
+    @Builder.Default
+    private ExecutionState state = new ExecutionState();
     
     private LocalDateTime startTime;
     private LocalDateTime endTime;
@@ -55,4 +52,28 @@ public class WorkflowExecution {
     protected void onCreate() {
         startTime = LocalDateTime.now();
     }
+    
+    @PostLoad
+    protected void onLoad() {
+        if (state == null) {
+            state = new ExecutionState();
+        }
+        state.upgrade();
+    }
+    
+    public Map<String, String> getStepResults() {
+        return state.getStepResults();
+    }
+    
+    public void setStepResults(Map<String, String> stepResults) {
+        state.setStepResults(stepResults != null ? stepResults : new HashMap<>());
+    }
+    
+    public Map<String, String> getMetadata() {
+        return state.getMetadata();
+    }
+    
+    public void setMetadata(Map<String, String> metadata) {
+        state.setMetadata(metadata != null ? metadata : new HashMap<>());
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.aiorchestration.workflow.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only list view of a workflow execution, selected without its step results or metadata.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowExecutionSummary {
+    private String id;
+    private String workflowId;
+    private String workflowName;
+    private WorkflowExecutionStatus status;
+    private String currentStepId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String errorMessage;
+}
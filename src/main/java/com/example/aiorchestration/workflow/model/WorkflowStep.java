@@ -7,7 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
@@ -31,6 +31,9 @@ public class WorkflowStep {
     
     private String agentId;
     
+    // Used to pick an agent at run time when no agentId is pinned
+    private String capability;
+    
     @Column(length = 2000)
     private String prompt;
     
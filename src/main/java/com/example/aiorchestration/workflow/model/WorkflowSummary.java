@@ -0,0 +1,22 @@
+package com.example.aiorchestration.workflow.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only list view of a workflow, selected without its steps or metadata.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowSummary {
+    private String id;
+    private String name;
+    private String description;
+    private String type;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -2,14 +2,41 @@ package com.example.aiorchestration.workflow.repository;
 
 import com.example.aiorchestration.workflow.model.WorkflowExecution;
 import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkflowExecutionRepository extends JpaRepository<WorkflowExecution, String> {
     List<WorkflowExecution> findByWorkflowId(String workflowId);
+    
+    // Keyset page: pass "" as afterId for the first page
+    @Query("select new com.example.aiorchestration.workflow.model.WorkflowExecutionSummary("
+            + "e.id, e.workflowId, e.workflowName, e.status, e.currentStepId, e.startTime, e.endTime, e.errorMessage)"
+            + " from WorkflowExecution e where e.workflowId = :workflowId and e.id > :afterId order by e.id")
+    List<WorkflowExecutionSummary> findSummaryPage(@Param("workflowId") String workflowId,
+                                                   @Param("afterId") String afterId,
+                                                   Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.aiorchestration.workflow.model.WorkflowExecutionSummary("
+            + "e.id, e.workflowId, e.workflowName, e.status, e.currentStepId, e.startTime, e.endTime, e.errorMessage)"
+            + " from WorkflowExecution e where e.workflowId = :workflowId order by e.id")
+    Stream<WorkflowExecutionSummary> streamSummaries(@Param("workflowId") String workflowId);
+    
+    // Rows written before step results and metadata moved to the state column
+    @Query("select e.id from WorkflowExecution e where e.state is null and e.id > :afterId order by e.id")
+    List<String> findIdsWithoutState(@Param("afterId") String afterId, Limit limit);
+    
     List<WorkflowExecution> findByStatus(WorkflowExecutionStatus status);
     List<WorkflowExecution> findByWorkflowIdAndStatus(String workflowId, WorkflowExecutionStatus status);
     long countByStatus(WorkflowExecutionStatus status);
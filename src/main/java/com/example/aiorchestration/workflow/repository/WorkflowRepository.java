@@ -1,14 +1,41 @@
 package com.example.aiorchestration.workflow.repository;
 
 import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkflowRepository extends JpaRepository<Workflow, String> {
     Optional<Workflow> findByName(String name);
-    List<Workflow> findByType(String type);
+    
+    // Steps in the same query; metadata is batch-fetched when touched
+    @EntityGraph(attributePaths = {"steps"})
+    Optional<Workflow> findWithStepsById(String id);
+    
+    @Query("select new com.example.aiorchestration.workflow.model.WorkflowSummary("
+            + "w.id, w.name, w.description, w.type, w.createdAt, w.updatedAt) from Workflow w where w.type = :type")
+    List<WorkflowSummary> findSummariesByType(@Param("type") String type);
+    
+    // Keyset page: pass "" as afterId for the first page
+    @Query("select new com.example.aiorchestration.workflow.model.WorkflowSummary("
+            + "w.id, w.name, w.description, w.type, w.createdAt, w.updatedAt) from Workflow w"
+            + " where w.id > :afterId order by w.id")
+    List<WorkflowSummary> findSummaryPage(@Param("afterId") String afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.aiorchestration.workflow.model.WorkflowSummary("
+            + "w.id, w.name, w.description, w.type, w.createdAt, w.updatedAt) from Workflow w order by w.id")
+    Stream<WorkflowSummary> streamSummaries();
 }
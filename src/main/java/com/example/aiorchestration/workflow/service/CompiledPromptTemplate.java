@@ -0,0 +1,145 @@
+package com.example.aiorchestration.workflow.service;
+
+import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowStep;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A step prompt parsed into literal and placeholder segments.
+ *
+ * Supported placeholders:
+ * <ul>
+ *     <li>{@code {{inputs.<key>}}} - a workflow input, as stored in the execution metadata</li>
+ *     <li>{@code {{steps.<step name or id>}}} - the result of an earlier step</li>
+ *     <li>{@code {{execution.id}}}, {@code {{workflow.id}}}, {@code {{workflow.name}}}</li>
+ * </ul>
+ * Unknown placeholders are kept verbatim; references without a value render as empty text.
+ */
+public final class CompiledPromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String source;
+    private final Segment[] segments;
+    private final int literalLength;
+    private final Set<String> referencedStepIds;
+
+    private CompiledPromptTemplate(String source, Segment[] segments, int literalLength) {
+        this.source = source;
+        this.segments = segments;
+        this.literalLength = literalLength;
+        this.referencedStepIds = new HashSet<>();
+        for (Segment segment : segments) {
+            if (segment.kind == Kind.STEP_RESULT) {
+                referencedStepIds.add(segment.value);
+            }
+        }
+    }
+
+    public static CompiledPromptTemplate compile(String source, Workflow workflow) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (open < 0 || close < 0) {
+                segments.add(Segment.literal(source.substring(position)));
+                literalLength += source.length() - position;
+                break;
+            }
+
+            if (open > position) {
+                segments.add(Segment.literal(source.substring(position, open)));
+                literalLength += open - position;
+            }
+
+            String expression = source.substring(open + OPEN.length(), close).trim();
+            Segment placeholder = parsePlaceholder(expression, workflow);
+            if (placeholder == null) {
+                String verbatim = source.substring(open, close + CLOSE.length());
+                segments.add(Segment.literal(verbatim));
+                literalLength += verbatim.length();
+            } else {
+                segments.add(placeholder);
+            }
+            position = close + CLOSE.length();
+        }
+
+        return new CompiledPromptTemplate(source, segments.toArray(new Segment[0]), literalLength);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Set<String> getReferencedStepIds() {
+        return referencedStepIds;
+    }
+
+    /**
+     * Render against the live execution; step results and inputs are read in place, never copied.
+     */
+    public String render(Workflow workflow, WorkflowExecution execution) {
+        StringBuilder prompt = new StringBuilder(literalLength + 256);
+        for (Segment segment : segments) {
+            switch (segment.kind) {
+                case LITERAL -> prompt.append(segment.value);
+                case INPUT -> appendIfPresent(prompt, execution.getMetadata().get(segment.value));
+                case STEP_RESULT -> appendIfPresent(prompt, execution.getStepResults().get(segment.value));
+                case EXECUTION_ID -> appendIfPresent(prompt, execution.getId());
+                case WORKFLOW_ID -> appendIfPresent(prompt, workflow.getId());
+                case WORKFLOW_NAME -> appendIfPresent(prompt, workflow.getName());
+            }
+        }
+        return prompt.toString();
+    }
+
+    private static void appendIfPresent(StringBuilder prompt, String value) {
+        if (value != null) {
+            prompt.append(value);
+        }
+    }
+
+    private static Segment parsePlaceholder(String expression, Workflow workflow) {
+        if (expression.startsWith("inputs.")) {
+            return new Segment(Kind.INPUT, expression.substring("inputs.".length()));
+        }
+        if (expression.startsWith("steps.")) {
+            return new Segment(Kind.STEP_RESULT, resolveStepId(expression.substring("steps.".length()), workflow));
+        }
+        return switch (expression) {
+            case "execution.id" -> new Segment(Kind.EXECUTION_ID, null);
+            case "workflow.id" -> new Segment(Kind.WORKFLOW_ID, null);
+            case "workflow.name" -> new Segment(Kind.WORKFLOW_NAME, null);
+            default -> null;
+        };
+    }
+
+    // Step results are keyed by step id; resolve names once here instead of on every render
+    private static String resolveStepId(String reference, Workflow workflow) {
+        for (WorkflowStep step : workflow.getSteps()) {
+            if (reference.equals(step.getName())) {
+                return step.getId();
+            }
+        }
+        return reference;
+    }
+
+    private enum Kind {
+        LITERAL, INPUT, STEP_RESULT, EXECUTION_ID, WORKFLOW_ID, WORKFLOW_NAME
+    }
+
+    private record Segment(Kind kind, String value) {
+        static Segment literal(String text) {
+            return new Segment(Kind.LITERAL, text);
+        }
+    }
+}
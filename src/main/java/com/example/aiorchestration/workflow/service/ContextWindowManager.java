@@ -0,0 +1,186 @@
+package com.example.aiorchestration.workflow.service;
+
+import com.example.aiorchestration.agent.model.Agent;
+import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowStep;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the earlier-step context sent with an agent call within the agent's token budget.
+ *
+ * The most recent results are kept whole while they fit, the next one is truncated to the remaining
+ * budget and older ones are reduced to a one-line note. Token counts are cached per execution and
+ * step so each result is counted once. The block header and step labels count against the budget
+ * too, and steps without a stored result are skipped.
+ */
+@Component
+@Slf4j
+public class ContextWindowManager {
+
+    public static final String BUDGET_METADATA_KEY = "contextTokenBudget";
+
+    private static final String TRUNCATION_MARKER = "\n[truncated]";
+
+    private static final String CONTEXT_HEADER = "Results of earlier workflow steps:\n";
+
+    // Below this many tokens a truncated excerpt is not worth sending
+    private static final int MIN_EXCERPT_TOKENS = 32;
+
+    private final TokenCountEstimator tokenCountEstimator;
+    private final int defaultBudget;
+    private final Map<String, ConcurrentMap<String, CountedResult>> tokenCounts;
+
+    public ContextWindowManager(TokenCountEstimator tokenCountEstimator,
+                                @Value("${workflow.context.max-tokens:4000}") int defaultBudget,
+                                @Value("${workflow.context.cached-executions:1000}") int cachedExecutions) {
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.defaultBudget = defaultBudget;
+        this.tokenCounts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConcurrentMap<String, CountedResult>> eldest) {
+                return size() > cachedExecutions;
+            }
+        });
+    }
+
+    /**
+     * Token budget for everything sent to an agent: its {@value #BUDGET_METADATA_KEY} metadata
+     * entry, or the configured default.
+     */
+    public int budgetFor(Agent agent) {
+        String configured = agent.getMetadata() != null ? agent.getMetadata().get(BUDGET_METADATA_KEY) : null;
+        if (configured != null) {
+            try {
+                return Integer.parseInt(configured.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid {} for agent {}: {}", BUDGET_METADATA_KEY, agent.getId(), configured);
+            }
+        }
+        return defaultBudget;
+    }
+
+    public int countTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : tokenCountEstimator.estimate(text);
+    }
+
+    /**
+     * Select earlier step results for the current step, newest first, within the token budget.
+     *
+     * @param excludedStepIds Steps already present in the prompt through template references
+     * @param budget Tokens available for the context
+     * @return Step id to (possibly shortened) result, in step order
+     */
+    public Map<String, String> selectContext(Workflow workflow, WorkflowExecution execution, WorkflowStep currentStep,
+                                             Set<String> excludedStepIds, int budget) {
+        List<WorkflowStep> earlierSteps = new ArrayList<>();
+        for (WorkflowStep step : workflow.getSteps()) {
+            if (!step.getId().equals(currentStep.getId())
+                    && !excludedStepIds.contains(step.getId())
+                    && execution.getStepResults().get(step.getId()) != null) {
+                earlierSteps.add(step);
+            }
+        }
+        earlierSteps.sort((a, b) -> Integer.compare(b.getSequence(), a.getSequence()));
+
+        Map<String, String> selected = new LinkedHashMap<>();
+        int remaining = Math.max(0, budget - (earlierSteps.isEmpty() ? 0 : countTokens(CONTEXT_HEADER)));
+        for (WorkflowStep step : earlierSteps) {
+            // Whatever is sent for the step comes with its label
+            int available = remaining - countTokens(label(step) + '\n');
+            if (available <= 0) {
+                continue;
+            }
+            String result = execution.getStepResults().get(step.getId());
+            int tokens = cachedCount(execution.getId(), step.getId(), result);
+
+            if (tokens <= available) {
+                selected.put(step.getId(), result);
+                remaining = available - tokens;
+            } else if (available >= MIN_EXCERPT_TOKENS) {
+                selected.put(step.getId(), truncate(result, tokens, available));
+                remaining = 0;
+            } else {
+                String note = "[result of step '" + step.getName() + "' omitted: " + tokens + " tokens]";
+                int noteTokens = countTokens(note);
+                if (noteTokens <= available) {
+                    selected.put(step.getId(), note);
+                    remaining = available - noteTokens;
+                }
+            }
+        }
+
+        // Present the selection in execution order
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (int i = earlierSteps.size() - 1; i >= 0; i--) {
+            String stepId = earlierSteps.get(i).getId();
+            if (selected.containsKey(stepId)) {
+                ordered.put(stepId, selected.get(stepId));
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Render a selected context as a block of labelled step results.
+     */
+    public String formatContext(Workflow workflow, Map<String, String> context) {
+        if (context.isEmpty()) {
+            return null;
+        }
+        StringBuilder block = new StringBuilder(CONTEXT_HEADER);
+        for (WorkflowStep step : workflow.getSteps()) {
+            String result = context.get(step.getId());
+            if (result != null) {
+                block.append(label(step)).append(result).append('\n');
+            }
+        }
+        return block.toString();
+    }
+
+    public void evict(String executionId) {
+        tokenCounts.remove(executionId);
+    }
+
+    private static String label(WorkflowStep step) {
+        return "\n### " + step.getName() + "\n";
+    }
+
+    private int cachedCount(String executionId, String stepId, String result) {
+        ConcurrentMap<String, CountedResult> counts =
+                tokenCounts.computeIfAbsent(executionId, id -> new ConcurrentHashMap<>());
+        CountedResult cached = counts.get(stepId);
+        if (cached != null && cached.matches(result)) {
+            return cached.tokens;
+        }
+        int tokens = countTokens(result);
+        counts.put(stepId, new CountedResult(result.length(), result.hashCode(), tokens));
+        return tokens;
+    }
+
+    // Token density is close to uniform within one result, so cut proportionally by characters
+    private String truncate(String result, int tokens, int budget) {
+        int markerTokens = countTokens(TRUNCATION_MARKER);
+        int keepTokens = Math.max(0, budget - markerTokens);
+        int keepChars = (int) ((long) result.length() * keepTokens / Math.max(1, tokens));
+        return result.substring(0, Math.min(result.length(), keepChars)) + TRUNCATION_MARKER;
+    }
+
+    private record CountedResult(int length, int hash, int tokens) {
+        boolean matches(String result) {
+            return result.length() == length && result.hashCode() == hash;
+        }
+    }
+}
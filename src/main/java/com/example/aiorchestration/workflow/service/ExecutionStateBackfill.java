@@ -0,0 +1,111 @@
+package com.example.aiorchestration.workflow.service;
+
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.repository.WorkflowExecutionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves step results and metadata of executions written before the state column out of the old
+ * {@code workflow_execution_results} and {@code workflow_execution_metadata} tables, once, at
+ * startup and before the application takes traffic.
+ *
+ * Only rows whose state is still null are touched, so later starts cost one empty query. The old
+ * tables are read, never changed; drop them once a start has logged the backfill as complete.
+ */
+@Component
+@Slf4j
+public class ExecutionStateBackfill {
+
+    private static final String RESULTS_TABLE = "workflow_execution_results";
+    private static final String METADATA_TABLE = "workflow_execution_metadata";
+
+    private final WorkflowExecutionRepository executionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public ExecutionStateBackfill(WorkflowExecutionRepository executionRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${workflow.state-backfill.enabled:true}") boolean enabled,
+                                  @Value("${workflow.state-backfill.batch-size:500}") int batchSize) {
+        this.executionRepository = executionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        boolean hasResults = tableExists(RESULTS_TABLE);
+        boolean hasMetadata = tableExists(METADATA_TABLE);
+        if (!hasResults && !hasMetadata) {
+            return;
+        }
+
+        int migrated = 0;
+        String afterId = "";
+        List<String> ids;
+        while (!(ids = executionRepository.findIdsWithoutState(afterId, Limit.of(batchSize))).isEmpty()) {
+            List<String> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> migrate(batch, hasResults, hasMetadata));
+            migrated += batch.size();
+            afterId = batch.get(batch.size() - 1);
+        }
+        if (migrated > 0) {
+            log.info("Backfilled the state column of {} workflow executions from {} and {}",
+                    migrated, RESULTS_TABLE, METADATA_TABLE);
+        }
+    }
+
+    // Loading assigns an empty state, so every execution in the batch is written even without old rows
+    private void migrate(List<String> ids, boolean hasResults, boolean hasMetadata) {
+        Map<String, Map<String, String>> results = hasResults
+                ? readLegacy(RESULTS_TABLE, "step_id", "result", ids) : Map.of();
+        Map<String, Map<String, String>> metadata = hasMetadata
+                ? readLegacy(METADATA_TABLE, "metadata_key", "metadata_value", ids) : Map.of();
+
+        for (WorkflowExecution execution : executionRepository.findAllById(ids)) {
+            execution.getStepResults().putAll(results.getOrDefault(execution.getId(), Map.of()));
+            execution.getMetadata().putAll(metadata.getOrDefault(execution.getId(), Map.of()));
+        }
+    }
+
+    private Map<String, Map<String, String>> readLegacy(String table, String keyColumn, String valueColumn, List<String> ids) {
+        String sql = "select execution_id, " + keyColumn + ", " + valueColumn + " from " + table
+                + " where execution_id in (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        Map<String, Map<String, String>> byExecution = new HashMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            byExecution.computeIfAbsent(resultSet.getString(1), id -> new HashMap<>())
+                    .put(resultSet.getString(2), resultSet.getString(3));
+        }, ids.toArray());
+        return byExecution;
+    }
+
+    // Probed outside a transaction: a failed statement would abort it on some databases
+    private boolean tableExists(String table) {
+        try {
+            jdbcTemplate.queryForObject("select count(*) from " + table + " where 1 = 0", Long.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
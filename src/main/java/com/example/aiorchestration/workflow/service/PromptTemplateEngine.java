@@ -0,0 +1,67 @@
+package com.example.aiorchestration.workflow.service;
+
+import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowStep;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Renders step prompts with workflow context. Templates are compiled once per workflow version
+ * (its last update time) and reused for every execution of that version.
+ */
+@Component
+public class PromptTemplateEngine {
+
+    private final ConcurrentMap<String, WorkflowTemplates> templatesByWorkflow = new ConcurrentHashMap<>();
+
+    public String render(Workflow workflow, WorkflowStep step, WorkflowExecution execution) {
+        if (step.getPrompt() == null) {
+            return null;
+        }
+        return template(workflow, step).render(workflow, execution);
+    }
+
+    /**
+     * @return Ids of the steps whose results the step's prompt already embeds
+     */
+    public Set<String> referencedStepIds(Workflow workflow, WorkflowStep step) {
+        if (step.getPrompt() == null) {
+            return Set.of();
+        }
+        return template(workflow, step).getReferencedStepIds();
+    }
+
+    public void evict(String workflowId) {
+        templatesByWorkflow.remove(workflowId);
+    }
+
+    private CompiledPromptTemplate template(Workflow workflow, WorkflowStep step) {
+        WorkflowTemplates templates = templatesByWorkflow.compute(workflow.getId(), (id, current) ->
+                current != null && Objects.equals(current.version, workflow.getUpdatedAt())
+                        ? current
+                        : new WorkflowTemplates(workflow.getUpdatedAt()));
+
+        CompiledPromptTemplate template = templates.byStepId.get(step.getId());
+        // Guard against step edits that did not move the workflow's update time
+        if (template == null || !template.getSource().equals(step.getPrompt())) {
+            template = CompiledPromptTemplate.compile(step.getPrompt(), workflow);
+            templates.byStepId.put(step.getId(), template);
+        }
+        return template;
+    }
+
+    private static final class WorkflowTemplates {
+        private final LocalDateTime version;
+        private final ConcurrentMap<String, CompiledPromptTemplate> byStepId = new ConcurrentHashMap<>();
+
+        private WorkflowTemplates(LocalDateTime version) {
+            this.version = version;
+        }
+    }
+}
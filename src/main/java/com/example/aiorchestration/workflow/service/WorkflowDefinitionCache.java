@@ -0,0 +1,125 @@
+package com.example.aiorchestration.workflow.service;
+
+import com.example.aiorchestration.event.InProcessEventBus;
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowStep;
+import com.example.aiorchestration.workflow.repository.WorkflowRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache of workflow definitions with their steps, so executing a step does not reload the
+ * workflow from the database.
+ *
+ * Definitions are loaded on first use and evicted on the UPDATED and DELETED events from the
+ * workflow-events fanout, which every node consumes through its own queue, or from the in-process
+ * event bus when that replaces RabbitMQ. Returned workflows are shared snapshots and must be
+ * treated as read-only. Misses are always loaded from the primary: a replica that has not yet
+ * applied the update behind an eviction would otherwise put a stale snapshot back in the cache.
+ */
+@Component
+@Slf4j
+public class WorkflowDefinitionCache {
+
+    private final WorkflowRepository workflowRepository;
+    private final ObjectProvider<InProcessEventBus> eventBus;
+    private final TransactionTemplate primaryReadTransaction;
+
+    private final ConcurrentMap<String, Workflow> workflowsById = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a load that raced with one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public WorkflowDefinitionCache(WorkflowRepository workflowRepository,
+                                   ObjectProvider<InProcessEventBus> eventBus,
+                                   PlatformTransactionManager transactionManager) {
+        this.workflowRepository = workflowRepository;
+        this.eventBus = eventBus;
+        // Read-write so the connection comes from the primary, never a replica
+        this.primaryReadTransaction = new TransactionTemplate(transactionManager);
+        this.primaryReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryReadTransaction.setReadOnly(false);
+    }
+
+    public Optional<Workflow> findById(String id) {
+        Workflow cached = workflowsById.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long evictionsBefore = evictions.get();
+        Optional<Workflow> loaded = load(id);
+        loaded.ifPresent(workflow -> {
+            if (evictions.get() == evictionsBefore) {
+                workflowsById.putIfAbsent(id, workflow);
+            }
+        });
+        return loaded;
+    }
+
+    public void evict(String workflowId) {
+        evictions.incrementAndGet();
+        workflowsById.remove(workflowId);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        eventBus.ifAvailable(bus -> bus.subscribe(WorkflowEvent.class, this::onWorkflowEvent));
+    }
+
+    @RabbitListener(queues = "#{workflowCatalogQueue.name}", autoStartup = "#{'${events.publisher:batching}' != 'inprocess'}")
+    public void onWorkflowEvent(WorkflowEvent event) {
+        if (event.getType() == null || event.getWorkflowId() == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case UPDATED, DELETED -> evict(event.getWorkflowId());
+            default -> {
+                // Creation is picked up on first use; execution events do not change definitions
+            }
+        }
+    }
+
+    private Optional<Workflow> load(String id) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return workflowRepository.findWithStepsById(id).map(this::snapshot);
+        }
+        // A read-only caller may be on a replica connection; load in a transaction of its own
+        return primaryReadTransaction.execute(status -> workflowRepository.findWithStepsById(id).map(this::snapshot));
+    }
+
+    // Detached copy so cached workflows never hold a lazy collection or a live persistence context
+    private Workflow snapshot(Workflow workflow) {
+        List<WorkflowStep> steps = new ArrayList<>(workflow.getSteps().size());
+        for (WorkflowStep step : workflow.getSteps()) {
+            steps.add(step.toBuilder().build());
+        }
+        return Workflow.builder()
+                .id(workflow.getId())
+                .name(workflow.getName())
+                .description(workflow.getDescription())
+                .type(workflow.getType())
+                .steps(steps)
+                .metadata(workflow.getMetadata() != null ? new HashMap<>(workflow.getMetadata()) : new HashMap<>())
+                .createdAt(workflow.getCreatedAt())
+                .updatedAt(workflow.getUpdatedAt())
+                .build();
+    }
+}
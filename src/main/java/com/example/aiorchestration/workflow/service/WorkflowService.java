@@ -1,10 +1,19 @@
 package com.example.aiorchestration.workflow.service;
 
+import com.example.aiorchestration.agent.model.Agent;
 import com.example.aiorchestration.agent.model.AgentRequest;
 import com.example.aiorchestration.agent.model.AgentResponse;
 import com.example.aiorchestration.agent.service.AgentManagementService;
+import com.example.aiorchestration.agent.service.AgentRouter;
+import com.example.aiorchestration.agent.service.ConversationMemoryStore;
+import com.example.aiorchestration.api.model.CursorPage;
+import com.example.aiorchestration.config.RabbitMQConfig;
+import com.example.aiorchestration.event.EventPublisher;
+import com.example.aiorchestration.metrics.OrchestrationMetrics;
 import com.example.aiorchestration.workflow.event.WorkflowEvent;
 import com.example.aiorchestration.workflow.event.WorkflowEventType;
+import com.example.aiorchestration.workflow.eventlog.ExecutionEventLog;
+import com.example.aiorchestration.workflow.eventlog.ExecutionLogEntry;
 import com.example.aiorchestration.workflow.model.*;
 import com.example.aiorchestration.workflow.repository.WorkflowExecutionRepository;
 import com.example.aiorchestration.workflow.repository.WorkflowRepository;
@@ -12,27 +21,45 @@ import io.github.resilience4j.retry.annotation.Retry;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowService {
 
+    public static final String CONVERSATION_MEMORY_METADATA_KEY = "conversationMemory";
+
     private final WorkflowRepository workflowRepository;
     private final WorkflowExecutionRepository workflowExecutionRepository;
     private final AgentManagementService agentService;
-    private final RabbitTemplate rabbitTemplate;
+    private final AgentRouter agentRouter;
+    private final PromptTemplateEngine promptTemplateEngine;
+    private final WorkflowDefinitionCache workflowDefinitionCache;
+    private final ContextWindowManager contextWindowManager;
+    private final ConversationMemoryStore conversationMemoryStore;
+    private final OrchestrationMetrics metrics;
+    private final EventPublisher eventPublisher;
+    private final ExecutionEventLog executionEventLog;
+    
+    // Conversation ids handed out per running execution, so ending one deletes exactly those
+    private final ConcurrentMap<String, Set<String>> conversationIdsByExecution = new ConcurrentHashMap<>();
     
     @Transactional
     public Workflow createWorkflow(Workflow workflow) {
@@ -51,24 +78,33 @@ public class WorkflowService {
     }
     
     @Transactional(readOnly = true)
-    public List<Workflow> getAllWorkflows() {
-        return workflowRepository.findAll();
+    public CursorPage<WorkflowSummary> getWorkflows(String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<WorkflowSummary> rows = workflowRepository.findSummaryPage(afterId(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, workflow -> CursorPage.encodeCursor(workflow.getId()));
+    }
+    
+    // Summaries are plain DTOs, so nothing accumulates in the persistence context
+    @Transactional(readOnly = true)
+    public void streamWorkflows(Consumer<WorkflowSummary> action) {
+        try (Stream<WorkflowSummary> workflows = workflowRepository.streamSummaries()) {
+            workflows.forEach(action);
+        }
     }
     
     @Transactional(readOnly = true)
     public Workflow getWorkflowById(String id) {
-        return workflowRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + id));
+        return findDefinition(id);
     }
     
     @Transactional(readOnly = true)
-    public List<Workflow> getWorkflowsByType(String type) {
-        return workflowRepository.findByType(type);
+    public List<WorkflowSummary> getWorkflowsByType(String type) {
+        return workflowRepository.findSummariesByType(type);
     }
     
     @Transactional
     public Workflow updateWorkflow(String id, Workflow workflow) {
-        Workflow existingWorkflow = getWorkflowById(id);
+        Workflow existingWorkflow = findWorkflow(id);
         
         // Check if name is being changed and if new name already exists
         if (!existingWorkflow.getName().equals(workflow.getName()) && 
@@ -85,6 +121,7 @@ public class WorkflowService {
         
         // Save workflow
         Workflow updatedWorkflow = workflowRepository.save(existingWorkflow);
+        workflowDefinitionCache.evict(id);
         
         // Publish workflow updated event
         publishWorkflowEvent(WorkflowEventType.UPDATED, updatedWorkflow, null, null);
@@ -94,10 +131,12 @@ public class WorkflowService {
     
     @Transactional
     public void deleteWorkflow(String id) {
-        Workflow workflow = getWorkflowById(id);
+        Workflow workflow = findWorkflow(id);
         
         // Delete workflow
         workflowRepository.delete(workflow);
+        promptTemplateEngine.evict(id);
+        workflowDefinitionCache.evict(id);
         
         // Publish workflow deleted event
         publishWorkflowEvent(WorkflowEventType.DELETED, workflow, null, null);
@@ -113,8 +152,6 @@ public class WorkflowService {
                 .workflowId(workflow.getId())
                 .workflowName(workflow.getName())
                 .status(WorkflowExecutionStatus.PENDING)
-                .metadata(new HashMap<>())
-                .stepResults(new HashMap<>())
                 .build();
         
         // Add inputs to metadata
@@ -136,8 +173,7 @@ public class WorkflowService {
         WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
                 .orElseThrow(() -> new EntityNotFoundException("Workflow execution not found with id: " + executionId));
         
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
         
         // Update status to RUNNING
         execution.setStatus(WorkflowExecutionStatus.RUNNING);
@@ -169,11 +205,15 @@ public class WorkflowService {
     @Transactional
     @Retry(name = "workflowStepExecution")
     public void executeWorkflowStep(String executionId, String stepId) {
+        executeWorkflowStep(executionId, stepId, 0);
+    }
+    
+    // Attempts are counted per call chain; the step definition is shared and never modified
+    private void executeWorkflowStep(String executionId, String stepId, int attempt) {
         WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
                 .orElseThrow(() -> new EntityNotFoundException("Workflow execution not found with id: " + executionId));
         
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
         
         // Find step
         WorkflowStep step = workflow.getSteps().stream()
@@ -187,6 +227,7 @@ public class WorkflowService {
         
         // Publish step started event
         publishWorkflowEvent(WorkflowEventType.STEP_STARTED, workflow, execution, step);
+        long stepStartNanos = System.nanoTime();
         
         try {
             String result = "";
@@ -194,7 +235,7 @@ public class WorkflowService {
             // Execute step based on type
             switch (step.getType()) {
                 case AGENT_EXECUTION:
-                    result = executeAgentStep(execution, step);
+                    result = executeAgentStep(workflow, execution, step);
                     break;
                 case CONDITION:
                     result = executeConditionStep(execution, step);
@@ -211,6 +252,7 @@ public class WorkflowService {
             // Store step result
             execution.getStepResults().put(stepId, result);
             workflowExecutionRepository.save(execution);
+            metrics.recordStep(step.getType().name(), true, System.nanoTime() - stepStartNanos);
             
             // Publish step completed event
             publishWorkflowEvent(WorkflowEventType.STEP_COMPLETED, workflow, execution, step);
@@ -227,19 +269,17 @@ public class WorkflowService {
             }
         } catch (Exception e) {
             log.error("Error executing workflow step: {}", e.getMessage(), e);
+            metrics.recordStep(step.getType().name(), false, System.nanoTime() - stepStartNanos);
             
             // Publish step failed event
             publishWorkflowEvent(WorkflowEventType.STEP_FAILED, workflow, execution, step);
             
             // Check if retry is possible
-            if (step.getRetryCount() > 0) {
-                // Decrement retry count
-                step.setRetryCount(step.getRetryCount() - 1);
-                
+            if (attempt < step.getRetryCount()) {
                 // Schedule retry
                 // In a real implementation, this would use a scheduler or delay queue
                 // For simplicity, we'll just retry immediately
-                executeWorkflowStep(executionId, stepId);
+                executeWorkflowStep(executionId, stepId, attempt + 1);
             } else {
                 // Find next step on failure
                 String nextStepId = findNextStep(workflow, step, false);
@@ -259,26 +299,41 @@ public class WorkflowService {
         }
     }
     
-    private String executeAgentStep(WorkflowExecution execution, WorkflowStep step) throws Exception {
-        if (step.getAgentId() == null) {
-            throw new IllegalArgumentException("Agent ID is required for agent execution step");
+    private String executeAgentStep(Workflow workflow, WorkflowExecution execution, WorkflowStep step) throws Exception {
+        if (step.getAgentId() == null && step.getCapability() == null) {
+            throw new IllegalArgumentException("Agent ID or capability is required for agent execution step");
         }
         
+        // Pinned agent wins; otherwise route among agents offering the capability
+        Agent agent = step.getAgentId() != null
+                ? agentService.getAgentById(step.getAgentId())
+                : agentRouter.selectAgent(step.getCapability());
+        
+        // Render the prompt with step results and inputs injected into the template
+        String prompt = promptTemplateEngine.render(workflow, step, execution);
+        
+        // Fill what is left of the agent's token budget with results of earlier steps
+        int contextBudget = contextWindowManager.budgetFor(agent) - contextWindowManager.countTokens(prompt);
+        Map<String, String> contextResults = contextWindowManager.selectContext(workflow, execution, step,
+                promptTemplateEngine.referencedStepIds(workflow, step), contextBudget);
+        
         // Create agent request
         AgentRequest agentRequest = AgentRequest.builder()
-                .prompt(step.getPrompt())
+                .prompt(prompt)
+                .context(contextWindowManager.formatContext(workflow, contextResults))
+                .conversationId(conversationId(agent, execution))
                 .build();
         
         // Add workflow context to parameters
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("workflowId", execution.getWorkflowId());
         parameters.put("executionId", execution.getId());
-        parameters.put("stepResults", execution.getStepResults());
+        parameters.put("stepResults", contextResults);
         parameters.put("metadata", execution.getMetadata());
         agentRequest.setParameters(parameters);
         
         // Execute agent
-        AgentResponse response = agentService.executeAgent(step.getAgentId(), agentRequest).get();
+        AgentResponse response = agentService.executeAgent(agent.getId(), agentRequest).get();
         
         if (!response.isSuccess()) {
             throw new RuntimeException("Agent execution failed: " + response.getErrorMessage());
@@ -287,6 +342,26 @@ public class WorkflowService {
         return response.getResult();
     }
     
+    // Agents opt in to remembering their own earlier turns within one execution
+    private String conversationId(Agent agent, WorkflowExecution execution) {
+        if (!"true".equalsIgnoreCase(agent.getMetadata().get(CONVERSATION_MEMORY_METADATA_KEY))) {
+            return null;
+        }
+        String conversationId = execution.getId() + ":" + agent.getId();
+        conversationIdsByExecution.computeIfAbsent(execution.getId(), id -> ConcurrentHashMap.newKeySet())
+                .add(conversationId);
+        return conversationId;
+    }
+    
+    // A finished execution needs neither its context window nor its agents' conversations
+    private void releaseExecutionContext(String executionId) {
+        contextWindowManager.evict(executionId);
+        Set<String> conversationIds = conversationIdsByExecution.remove(executionId);
+        if (conversationIds != null) {
+            conversationMemoryStore.evict(conversationIds);
+        }
+    }
+    
     private String executeConditionStep(WorkflowExecution execution, WorkflowStep step) {
         if (step.getCondition() == null) {
             throw new IllegalArgumentException("Condition is required for condition step");
@@ -303,8 +378,7 @@ public class WorkflowService {
         workflowExecutionRepository.save(execution);
         
         // Publish human review requested event
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
         
         publishWorkflowEvent(WorkflowEventType.HUMAN_REVIEW_REQUESTED, workflow, execution, step);
     }
@@ -314,8 +388,7 @@ public class WorkflowService {
         WorkflowExecution execution = workflowExecutionRepository.findById(executionId)
                 .orElseThrow(() -> new EntityNotFoundException("Workflow execution not found with id: " + executionId));
         
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
         
         // Find step
         WorkflowStep step = workflow.getSteps().stream()
@@ -370,10 +443,12 @@ public class WorkflowService {
         execution.setStatus(WorkflowExecutionStatus.COMPLETED);
         execution.setEndTime(LocalDateTime.now());
         workflowExecutionRepository.save(execution);
+        releaseExecutionContext(executionId);
         
         // Publish workflow execution completed event
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
+        
+        recordWorkflowDuration(workflow, execution);
         
         publishWorkflowEvent(WorkflowEventType.EXECUTION_COMPLETED, workflow, execution, null);
     }
@@ -388,10 +463,12 @@ public class WorkflowService {
         execution.setEndTime(LocalDateTime.now());
         execution.setErrorMessage(errorMessage);
         workflowExecutionRepository.save(execution);
+        releaseExecutionContext(executionId);
         
         // Publish workflow execution failed event
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
+        
+        recordWorkflowDuration(workflow, execution);
         
         publishWorkflowEvent(WorkflowEventType.EXECUTION_FAILED, workflow, execution, null);
     }
@@ -405,17 +482,29 @@ public class WorkflowService {
         execution.setStatus(WorkflowExecutionStatus.CANCELLED);
         execution.setEndTime(LocalDateTime.now());
         workflowExecutionRepository.save(execution);
+        releaseExecutionContext(executionId);
         
         // Publish workflow execution failed event
-        Workflow workflow = workflowRepository.findById(execution.getWorkflowId())
-                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + execution.getWorkflowId()));
+        Workflow workflow = findDefinition(execution.getWorkflowId());
+        
+        recordWorkflowDuration(workflow, execution);
         
         publishWorkflowEvent(WorkflowEventType.EXECUTION_FAILED, workflow, execution, null);
     }
     
     @Transactional(readOnly = true)
-    public List<WorkflowExecution> getWorkflowExecutions(String workflowId) {
-        return workflowExecutionRepository.findByWorkflowId(workflowId);
+    public CursorPage<WorkflowExecutionSummary> getWorkflowExecutions(String workflowId, String cursor, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<WorkflowExecutionSummary> rows = workflowExecutionRepository.findSummaryPage(
+                workflowId, afterId(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, execution -> CursorPage.encodeCursor(execution.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamWorkflowExecutions(String workflowId, Consumer<WorkflowExecutionSummary> action) {
+        try (Stream<WorkflowExecutionSummary> executions = workflowExecutionRepository.streamSummaries(workflowId)) {
+            executions.forEach(action);
+        }
     }
     
     @Transactional(readOnly = true)
@@ -424,6 +513,38 @@ public class WorkflowService {
                 .orElseThrow(() -> new EntityNotFoundException("Workflow execution not found with id: " + executionId));
     }
     
+    public List<ExecutionLogEntry> getExecutionHistory(String executionId) {
+        return executionEventLog.history(executionId);
+    }
+    
+    public WorkflowExecution replayWorkflowExecution(String executionId) {
+        return executionEventLog.replay(executionId);
+    }
+    
+    // Shared read-only definition for reads and executions
+    private Workflow findDefinition(String id) {
+        return workflowDefinitionCache.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + id));
+    }
+    
+    // Managed entity for updates; the metadata map is batch-fetched if touched
+    private Workflow findWorkflow(String id) {
+        return workflowRepository.findWithStepsById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Workflow not found with id: " + id));
+    }
+    
+    private String afterId(String cursor) {
+        String[] keys = CursorPage.decodeCursor(cursor, 1);
+        return keys != null ? keys[0] : "";
+    }
+    
+    private void recordWorkflowDuration(Workflow workflow, WorkflowExecution execution) {
+        if (execution.getStartTime() != null) {
+            metrics.recordWorkflow(workflow.getType(), execution.getStatus().name(),
+                    Duration.between(execution.getStartTime(), execution.getEndTime()).toMillis());
+        }
+    }
+    
     private void publishWorkflowEvent(WorkflowEventType eventType, Workflow workflow, WorkflowExecution execution, WorkflowStep step) {
         WorkflowEvent event = WorkflowEvent.builder()
                 .type(eventType)
@@ -436,6 +557,12 @@ public class WorkflowService {
                 .timestamp(LocalDateTime.now())
                 .build();
         
-        rabbitTemplate.convertAndSend("workflow-events", event);
+        eventPublisher.publish(execution == null
+                ? RabbitMQConfig.WORKFLOW_EVENTS_EXCHANGE
+                : RabbitMQConfig.WORKFLOW_EXECUTION_EVENTS_EXCHANGE, "", event);
+        
+        if (execution != null) {
+            executionEventLog.append(event, execution);
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.example.aiorchestration.benchmark;
+
+import com.example.aiorchestration.utility.service.AuditJsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming audit payload encoder with the hand-built StringBuilder encoding it
+ * replaced, on a risk scoring payload. Run with the GC profiler (as {@link #main} does) to compare
+ * bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditJsonEncodingBenchmark {
+
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        payload = new HashMap<>();
+        payload.put("amount", 12500.75);
+        payload.put("country", "BR");
+        payload.put("customerAge", 23);
+        payload.put("newCustomer", true);
+        payload.put("merchant", "Loja \"Central\" de Eletrônicos");
+        payload.put("notes", "Second purchase today\nflagged by rule R-17");
+        payload.put("riskScore", 85);
+    }
+
+    @Benchmark
+    public String streamingEncoder() {
+        return AuditJsonEncoder.encode(payload);
+    }
+
+    @Benchmark
+    public String stringBuilderEncoder() {
+        return previousEncoding(payload);
+    }
+
+    // The encoding AuditLogService used before AuditJsonEncoder
+    private static String previousEncoding(Map<String, Object> data) {
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (!first) {
+                json.append(",");
+            }
+            json.append("\"").append(entry.getKey()).append("\":\"")
+                .append(entry.getValue().toString().replace("\"", "\\\"")).append("\"");
+            first = false;
+        }
+
+        json.append("}");
+        return json.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditJsonEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.aiorchestration.benchmark;
+
+import com.example.aiorchestration.agent.event.AgentEvent;
+import com.example.aiorchestration.agent.event.AgentEventType;
+import com.example.aiorchestration.agent.model.AgentStatus;
+import com.example.aiorchestration.event.EventMessageConverter;
+import com.example.aiorchestration.workflow.event.WorkflowEvent;
+import com.example.aiorchestration.workflow.event.WorkflowEventType;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and binary event formats: serialization and deserialization throughput, and
+ * (printed once per run) bytes per event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"workflow", "agent"})
+    private String eventKind;
+
+    private EventMessageConverter jsonConverter;
+    private EventMessageConverter binaryConverter;
+    private Object event;
+    private Message jsonMessage;
+    private Message binaryMessage;
+
+    @Setup
+    public void setUp() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter("com.example.aiorchestration");
+        jsonConverter = new EventMessageConverter(json, false);
+        binaryConverter = new EventMessageConverter(json, true);
+        event = "agent".equals(eventKind) ? agentEvent() : workflowEvent();
+        jsonMessage = jsonConverter.toMessage(event, new MessageProperties());
+        binaryMessage = binaryConverter.toMessage(event, new MessageProperties());
+
+        System.out.printf("%n%s event: json %d bytes, binary %d bytes%n",
+                eventKind, jsonMessage.getBody().length, binaryMessage.getBody().length);
+    }
+
+    @Benchmark
+    public Message serializeJson() {
+        return jsonConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message serializeBinary() {
+        return binaryConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonConverter.fromMessage(jsonMessage);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryConverter.fromMessage(binaryMessage);
+    }
+
+    private static WorkflowEvent workflowEvent() {
+        return WorkflowEvent.builder()
+                .type(WorkflowEventType.STEP_COMPLETED)
+                .workflowId(UUID.randomUUID().toString())
+                .workflowName("Loan application review")
+                .executionId(UUID.randomUUID().toString())
+                .status(WorkflowExecutionStatus.RUNNING)
+                .stepId(UUID.randomUUID().toString())
+                .stepName("Risk assessment")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static AgentEvent agentEvent() {
+        return AgentEvent.builder()
+                .type(AgentEventType.STATUS_CHANGED)
+                .agentId(UUID.randomUUID().toString())
+                .agentName("risk-analyst")
+                .status(AgentStatus.WORKING)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
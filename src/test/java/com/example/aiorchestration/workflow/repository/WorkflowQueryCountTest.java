@@ -0,0 +1,156 @@
+package com.example.aiorchestration.workflow.repository;
+
+import com.example.aiorchestration.workflow.model.StepType;
+import com.example.aiorchestration.workflow.model.Workflow;
+import com.example.aiorchestration.workflow.model.WorkflowExecution;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionStatus;
+import com.example.aiorchestration.workflow.model.WorkflowExecutionSummary;
+import com.example.aiorchestration.workflow.model.WorkflowStep;
+import com.example.aiorchestration.workflow.model.WorkflowSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of statements behind the workflow and execution list and detail reads, so a
+ * lazy association touched per row shows up as a failure rather than as an N+1 in production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class WorkflowQueryCountTest {
+
+    private static final int WORKFLOWS = 5;
+    private static final int EXECUTIONS_PER_WORKFLOW = 4;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private WorkflowExecutionRepository executionRepository;
+
+    private Statistics statistics;
+    private final List<String> workflowIds = new ArrayList<>();
+    private final List<String> executionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < WORKFLOWS; i++) {
+            Workflow workflow = testEntityManager.persist(workflow(i));
+            workflowIds.add(workflow.getId());
+            for (int j = 0; j < EXECUTIONS_PER_WORKFLOW; j++) {
+                executionIds.add(testEntityManager.persist(execution(workflow, j)).getId());
+            }
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void workflowPageIsOneStatement() {
+        List<WorkflowSummary> page = workflowRepository.findSummaryPage("", Limit.of(WORKFLOWS));
+
+        assertThat(page).hasSize(WORKFLOWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void workflowStreamIsOneStatement() {
+        try (Stream<WorkflowSummary> summaries = workflowRepository.streamSummaries()) {
+            assertThat(summaries.count()).isEqualTo(WORKFLOWS);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void workflowDetailFetchesStepsWithTheWorkflow() {
+        Workflow workflow = workflowRepository.findWithStepsById(workflowIds.get(0)).orElseThrow();
+
+        assertThat(workflow.getSteps()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // Metadata is the one lazy collection left, loaded in a single batch when touched
+        assertThat(workflow.getMetadata()).containsEntry("owner", "team-0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void executionPageIsOneStatement() {
+        List<WorkflowExecutionSummary> page = executionRepository.findSummaryPage(workflowIds.get(0), "",
+                Limit.of(EXECUTIONS_PER_WORKFLOW));
+
+        assertThat(page).hasSize(EXECUTIONS_PER_WORKFLOW);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void executionStreamIsOneStatement() {
+        try (Stream<WorkflowExecutionSummary> summaries = executionRepository.streamSummaries(workflowIds.get(0))) {
+            assertThat(summaries.count()).isEqualTo(EXECUTIONS_PER_WORKFLOW);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void executionDetailIsOneStatement() {
+        WorkflowExecution execution = executionRepository.findById(executionIds.get(0)).orElseThrow();
+
+        // Step results and metadata live in the row's state column
+        assertThat(execution.getStepResults()).containsEntry("step-0", "result-0");
+        assertThat(execution.getMetadata()).containsEntry("requestedBy", "user-0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static Workflow workflow(int index) {
+        List<WorkflowStep> steps = new ArrayList<>();
+        for (int sequence = 0; sequence < 3; sequence++) {
+            steps.add(WorkflowStep.builder()
+                    .name("step-" + sequence)
+                    .sequence(sequence)
+                    .type(StepType.AGENT_EXECUTION)
+                    .required(true)
+                    .build());
+        }
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("owner", "team-" + index);
+        return Workflow.builder()
+                .name("workflow-" + index)
+                .type("SEQUENTIAL")
+                .steps(steps)
+                .metadata(metadata)
+                .build();
+    }
+
+    private static WorkflowExecution execution(Workflow workflow, int index) {
+        WorkflowExecution execution = WorkflowExecution.builder()
+                .workflowId(workflow.getId())
+                .workflowName(workflow.getName())
+                .status(WorkflowExecutionStatus.COMPLETED)
+                .build();
+        execution.getStepResults().put("step-" + index, "result-" + index);
+        execution.getMetadata().put("requestedBy", "user-" + index);
+        return execution;
+    }
+}